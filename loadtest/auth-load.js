@@ -0,0 +1,57 @@
+// k6 load test for auth-service: registration, login and authenticated requests.
+// Usage: k6 run -e BASE_URL=http://localhost:8080 loadtest/auth-load.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERS = parseInt(__ENV.USERS || '200');
+const PASSWORD = 'LoadTest-Password-1';
+
+const shed = new Counter('shed_503');
+
+export const options = {
+    scenarios: {
+        login: {
+            executor: 'constant-arrival-rate',
+            rate: parseInt(__ENV.RATE || '200'),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+        },
+    },
+    thresholds: {
+        'http_req_duration{name:login}': ['p(99)<1000'],
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(99)', 'max'],
+};
+
+const params = { headers: { 'Content-Type': 'application/json' } };
+
+function email(i) {
+    return `loadtest-${i}@example.com`;
+}
+
+export function setup() {
+    // SKIP_SETUP=true reuses users from an earlier run, so registrations do not warm up a fresh instance
+    if (__ENV.SKIP_SETUP === 'true') {
+        return;
+    }
+    for (let i = 0; i < USERS; i++) {
+        http.post(`${BASE_URL}/auth/register`, JSON.stringify({ email: email(i), password: PASSWORD }),
+            Object.assign({ tags: { name: 'register' } }, params));
+    }
+}
+
+export default function () {
+    const i = Math.floor(Math.random() * USERS);
+    const res = http.post(`${BASE_URL}/auth/login`, JSON.stringify({ email: email(i), password: PASSWORD }),
+        Object.assign({ tags: { name: 'login' } }, params));
+
+    if (res.status === 503) {
+        shed.add(1);
+        return;
+    }
+    check(res, { 'login 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,12 @@
+package com.georgedroidnegroid.auth_service.audit;
+
+import java.time.Instant;
+
+public record AuditEvent(
+        AuditEventType type,
+        String email,
+        Long userId,
+        String remoteAddress,
+        String detail,
+        Instant occurredAt) {
+}
@@ -0,0 +1,8 @@
+package com.georgedroidnegroid.auth_service.audit;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    TOKEN_REJECTED,
+    ACCOUNT_RESTORED
+}
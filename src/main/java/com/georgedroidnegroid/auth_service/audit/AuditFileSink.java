@@ -0,0 +1,94 @@
+package com.georgedroidnegroid.auth_service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fallback for when the database rejects audit batches: gzip-compressed JSON lines,
+ * rotated by uncompressed size and pruned to the newest {@code maxFiles}.
+ */
+class AuditFileSink implements Closeable {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".jsonl.gz";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutputStream out;
+    private long written;
+
+    AuditFileSink(Path directory, long maxFileBytes, int maxFiles) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    synchronized void write(List<AuditEvent> events) throws IOException {
+        if (out == null || written >= maxFileBytes) {
+            rotate();
+        }
+        for (AuditEvent event : events) {
+            byte[] line = objectMapper.writeValueAsBytes(toMap(event));
+            out.write(line);
+            out.write('\n');
+            written += line.length + 1;
+        }
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Files.createDirectories(directory);
+
+        Path file = directory.resolve(PREFIX + FILE_TIMESTAMP.format(ZonedDateTime.now(ZoneOffset.UTC)) + SUFFIX);
+        out = new GZIPOutputStream(Files.newOutputStream(file), 8192, true);
+        written = 0;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> existing = files
+                    .filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+            for (int i = 0; i < existing.size() - maxFiles; i++) {
+                Files.deleteIfExists(existing.get(i));
+            }
+        }
+    }
+
+    private static Map<String, Object> toMap(AuditEvent event) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", event.type().name());
+        json.put("email", event.email());
+        json.put("userId", event.userId());
+        json.put("remoteAddress", event.remoteAddress());
+        json.put("detail", event.detail());
+        json.put("occurredAt", event.occurredAt().toString());
+        return json;
+    }
+}
@@ -0,0 +1,172 @@
+package com.georgedroidnegroid.auth_service.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Authentication audit trail. Request threads only enqueue into a lock-free ring buffer and never wait:
+ * when it is full the event is dropped and counted. A single writer thread flushes the buffer to
+ * {@code auth_audit_event} in JDBC batches and falls back to rotating gzip files if the database fails.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final String INSERT = "INSERT INTO auth_audit_event "
+            + "(event_type, email, user_id, remote_address, detail, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final AuditFileSink fileSink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Counter acceptedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Counter fallbackCounter;
+    private final Counter lostCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(JdbcTemplate jdbcTemplate,
+                    MeterRegistry meterRegistry,
+                    @Value("${auth.audit.enabled:true}") boolean enabled,
+                    @Value("${auth.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${auth.audit.batch-size:500}") int batchSize,
+                    @Value("${auth.audit.flush-interval-ms:200}") long flushIntervalMs,
+                    @Value("${auth.audit.fallback.directory:logs/audit}") String fallbackDirectory,
+                    @Value("${auth.audit.fallback.max-file-bytes:67108864}") long fallbackMaxFileBytes,
+                    @Value("${auth.audit.fallback.max-files:20}") int fallbackMaxFiles) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.fileSink = new AuditFileSink(Path.of(fallbackDirectory), fallbackMaxFileBytes, fallbackMaxFiles);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        this.acceptedCounter = Counter.builder("auth.audit.events").tag("outcome", "accepted")
+                .description("Audit events accepted into the buffer").register(meterRegistry);
+        this.droppedCounter = Counter.builder("auth.audit.events").tag("outcome", "dropped")
+                .description("Audit events dropped because the buffer was full").register(meterRegistry);
+        this.flushedCounter = Counter.builder("auth.audit.flushed")
+                .description("Audit events written to the database").register(meterRegistry);
+        this.fallbackCounter = Counter.builder("auth.audit.fallback")
+                .description("Audit events written to the local fallback file").register(meterRegistry);
+        this.lostCounter = Counter.builder("auth.audit.lost")
+                .description("Audit events lost because both sinks failed").register(meterRegistry);
+        Gauge.builder("auth.audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the writer").register(meterRegistry);
+    }
+
+    public void record(AuditEventType type, String email, Long userId, String detail) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(type, email, userId, currentRemoteAddress(), detail, Instant.now());
+        if (buffer.offer(event)) {
+            acceptedCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        fileSink.close();
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            drain(batch);
+        }
+        drain(batch);
+    }
+
+    private void drain(List<AuditEvent> batch) {
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, event) -> {
+                ps.setString(1, event.type().name());
+                ps.setString(2, event.email());
+                if (event.userId() == null) {
+                    ps.setNull(3, Types.BIGINT);
+                } else {
+                    ps.setLong(3, event.userId());
+                }
+                ps.setString(4, event.remoteAddress());
+                ps.setString(5, event.detail());
+                ps.setTimestamp(6, Timestamp.from(event.occurredAt()));
+            });
+            flushedCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Audit batch of {} events could not be written to the database: {}", batch.size(), e.getMessage());
+            writeFallback(batch);
+        }
+    }
+
+    private void writeFallback(List<AuditEvent> batch) {
+        try {
+            fileSink.write(batch);
+            fallbackCounter.increment(batch.size());
+        } catch (IOException e) {
+            lostCounter.increment(batch.size());
+            log.error("Audit batch of {} events lost: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static String currentRemoteAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
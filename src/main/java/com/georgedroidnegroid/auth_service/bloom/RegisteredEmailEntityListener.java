@@ -0,0 +1,30 @@
+package com.georgedroidnegroid.auth_service.bloom;
+
+import com.georgedroidnegroid.auth_service.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link RegisteredEmailFilter} in step with every user written through JPA on this instance,
+ * not only those created by {@code AuthService.registerUser}.
+ */
+@Component
+public class RegisteredEmailEntityListener {
+
+    private final RegisteredEmailFilter registeredEmailFilter;
+
+    public RegisteredEmailEntityListener(RegisteredEmailFilter registeredEmailFilter) {
+        this.registeredEmailFilter = registeredEmailFilter;
+    }
+
+    @PostPersist
+    void onPersist(User user) {
+        registeredEmailFilter.registered(user.getEmail());
+    }
+
+    @PostRemove
+    void onRemove(User user) {
+        registeredEmailFilter.deleted(user.getEmail());
+    }
+}
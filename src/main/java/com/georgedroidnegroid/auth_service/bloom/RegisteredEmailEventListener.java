@@ -0,0 +1,63 @@
+package com.georgedroidnegroid.auth_service.bloom;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgedroidnegroid.auth_service.entity.OutboxEventType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Adds users registered on other instances to this instance's {@link RegisteredEmailFilter}. Every instance
+ * reads the outbox topic in its own consumer group, starting from the latest offset: older users are covered
+ * by the scan that the filter starts once the partitions are assigned. Losing the partitions makes the filter
+ * stop trusting misses until they are assigned again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"auth.outbox.enabled", "auth.email-filter.enabled"}, havingValue = "true")
+public class RegisteredEmailEventListener implements ConsumerSeekAware {
+
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final ObjectMapper objectMapper;
+
+    public RegisteredEmailEventListener(RegisteredEmailFilter registeredEmailFilter, ObjectMapper objectMapper) {
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        registeredEmailFilter.feedConnected();
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        registeredEmailFilter.feedDisconnected();
+    }
+
+    @KafkaListener(topics = "${auth.outbox.topic:auth.user-events}",
+            groupId = "auth-email-filter-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void onUserEvent(String payload) {
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            String email = event.path("email").asText(null);
+            String type = event.path("type").asText("");
+            if (OutboxEventType.USER_REGISTERED.name().equals(type)) {
+                registeredEmailFilter.registered(email);
+            } else if (OutboxEventType.USER_DELETED.name().equals(type)) {
+                registeredEmailFilter.deleted(email);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable user event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.georgedroidnegroid.auth_service.bloom;
+
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import com.georgedroidnegroid.auth_service.sharding.ShardRoutingDataSource;
+import com.georgedroidnegroid.auth_service.utils.EmailNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter of registered (normalized) emails, so logins of emails that were never registered skip the
+ * database. Built in the background at startup by streaming {@code auth_info} and its archive. Deleted users cannot
+ * be removed from a Bloom filter: they only cost a query, and the filter is rebuilt once deletions exceed
+ * {@code auth.email-filter.rebuild-deleted-ratio} of its entries.
+ * <p>
+ * A miss is only trusted while users registered on other instances reach this filter through the outbox topic
+ * ({@link RegisteredEmailEventListener}) and the filter was built after that feed connected. Without the feed,
+ * a user registered elsewhere would be reported as unknown here until the next rebuild.
+ */
+@Slf4j
+@Component
+public class RegisteredEmailFilter {
+
+    // Archived accounts still own their email and are restored on login, so they must stay "registered"
+    private static final String SELECT_EMAILS = "SELECT email FROM auth_info UNION ALL SELECT email FROM auth_info_archive";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final double rebuildDeletedRatio;
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-filter-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean building = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicLong feedGeneration = new AtomicLong();
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+    private final Counter skippedLookups;
+
+    private volatile ScalableBloomFilter filter;
+    private volatile ScalableBloomFilter next;
+    private volatile boolean feedConnected;
+    private volatile boolean consistent;
+
+    public RegisteredEmailFilter(DataSource dataSource,
+                                 ObjectProvider<ShardRouter> shardRouter,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${auth.email-filter.enabled:true}") boolean enabled,
+                                 @Value("${auth.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${auth.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${auth.email-filter.rebuild-deleted-ratio:0.2}") double rebuildDeletedRatio,
+                                 @Value("${auth.email-filter.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // Not the JPA transaction manager: the User entity listener needs this bean while JPA is being set up
+        this.readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildDeletedRatio = rebuildDeletedRatio;
+
+        this.skippedLookups = Counter.builder("auth.email-filter.skipped")
+                .description("Lookups answered without the database because the email was never registered")
+                .register(meterRegistry);
+        Gauge.builder("auth.email-filter.size.bytes", this, RegisteredEmailFilter::sizeInBytes)
+                .description("Memory used by the registered email Bloom filter").register(meterRegistry);
+        Gauge.builder("auth.email-filter.false-positive-rate", this, RegisteredEmailFilter::expectedFalsePositiveRate)
+                .description("Expected false-positive rate of the registered email Bloom filter").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            scheduleRebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    public boolean isBuilding() {
+        return building.get();
+    }
+
+    /**
+     * Whether this filter is kept up to date with registrations on every instance.
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * @return true only if no user with this email (up to case and surrounding whitespace) exists and the filter
+     * is consistent, so the lookup can be skipped
+     */
+    public boolean isKnownUnregistered(String email) {
+        ScalableBloomFilter current = filter;
+        if (!consistent || current == null || email == null) {
+            return false;
+        }
+        if (current.mightContain(EmailNormalizer.normalize(email))) {
+            return false;
+        }
+        skippedLookups.increment();
+        return true;
+    }
+
+    /**
+     * Called once registrations of other instances are delivered. Rebuilds, so the scan starts after the feed
+     * and no registration can fall between the two.
+     */
+    public void feedConnected() {
+        feedConnected = true;
+        feedGeneration.incrementAndGet();
+        if (enabled) {
+            scheduleRebuild();
+        }
+    }
+
+    public void feedDisconnected() {
+        feedConnected = false;
+        feedGeneration.incrementAndGet();
+        consistent = false;
+    }
+
+    /**
+     * Adds the email once the current transaction commits, so a rebuild that started earlier cannot miss it.
+     */
+    public void registered(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String normalized = EmailNormalizer.normalize(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(normalized);
+                }
+            });
+        } else {
+            put(normalized);
+        }
+    }
+
+    public void deleted(String email) {
+        ScalableBloomFilter current = filter;
+        if (current != null && deletedSinceBuild.incrementAndGet() > rebuildDeletedRatio * current.approximateCount()) {
+            scheduleRebuild();
+        }
+    }
+
+    private double sizeInBytes() {
+        ScalableBloomFilter current = filter;
+        return current == null ? 0 : current.sizeInBytes();
+    }
+
+    private double expectedFalsePositiveRate() {
+        ScalableBloomFilter current = filter;
+        return current == null ? 1 : current.expectedFalsePositiveRate();
+    }
+
+    private void put(String normalized) {
+        ScalableBloomFilter pending = next;
+        if (pending != null) {
+            pending.put(normalized);
+        }
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(normalized);
+        }
+    }
+
+    private void scheduleRebuild() {
+        rebuildRequested.set(true);
+        if (building.compareAndSet(false, true)) {
+            builder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        rebuildRequested.set(false);
+        long generation = feedGeneration.get();
+        boolean fed = feedConnected;
+        try {
+            ScalableBloomFilter rebuilt = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+            next = rebuilt;
+            deletedSinceBuild.set(0);
+
+            ShardRouter router = shardRouter.getIfAvailable();
+            if (router == null) {
+                stream(rebuilt);
+            } else {
+                for (int shard = 0; shard < router.getShardCount(); shard++) {
+                    ShardRoutingDataSource.use(shard);
+                    try {
+                        stream(rebuilt);
+                    } finally {
+                        ShardRoutingDataSource.clear();
+                    }
+                }
+            }
+
+            filter = rebuilt;
+            consistent = fed && feedGeneration.get() == generation;
+            log.info("Registered email filter built: {} emails, {} KiB, expected false-positive rate {} in {} ms"
+                            + (consistent ? "" : "; misses are not trusted until registrations of other instances are received"),
+                    rebuilt.approximateCount(), rebuilt.sizeInBytes() / 1024, rebuilt.expectedFalsePositiveRate(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Registered email filter could not be built, lookups keep going to the database: {}", e.getMessage());
+        } finally {
+            next = null;
+            building.set(false);
+        }
+        // The feed connected while this build was running
+        if (rebuildRequested.get()) {
+            scheduleRebuild();
+        }
+    }
+
+    private void stream(ScalableBloomFilter target) {
+        // A read-only transaction lets the PostgreSQL driver use a cursor, so only fetch-size rows are in memory
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(SELECT_EMAILS, rs -> {
+            String email = rs.getString(1);
+            if (email != null) {
+                target.put(EmailNormalizer.normalize(email));
+            }
+        }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        builder.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package com.georgedroidnegroid.auth_service.bloom;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter that keeps its false-positive rate bounded as it grows: when the newest segment
+ * reaches its capacity a segment with twice the capacity and half the false-positive rate is added, so the
+ * compound rate stays below the configured one. Keys are hashed directly from their chars, without encoding.
+ */
+public class ScalableBloomFilter {
+
+    private static final double TIGHTENING = 0.5;
+    private static final double LN2 = Math.log(2);
+
+    private volatile Segment[] segments;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected capacity >= 1 and 0 < falsePositiveRate < 1");
+        }
+        // Rates of the segments form p * (1 - r) * r^i, which sums to less than p
+        this.segments = new Segment[]{new Segment(initialCapacity, falsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        for (Segment segment : segments) {
+            if (segment.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(CharSequence key) {
+        long h1 = hash(key);
+        long h2 = secondHash(h1);
+        Segment[] current = segments;
+        Segment last = current[current.length - 1];
+        if (last.count.get() >= last.capacity) {
+            last = grow(last);
+        }
+        last.put(h1, h2);
+    }
+
+    public long approximateCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.count.get();
+        }
+        return count;
+    }
+
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.words.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * False-positive rate expected from the current fill of every segment.
+     */
+    public double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Segment segment : segments) {
+            double fill = 1 - Math.exp(-(double) segment.hashes * segment.count.get() / segment.bits);
+            allNegative *= 1 - Math.pow(fill, segment.hashes);
+        }
+        return 1 - allNegative;
+    }
+
+    private synchronized Segment grow(Segment full) {
+        Segment[] current = segments;
+        Segment last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        Segment next = new Segment(full.capacity * 2, full.falsePositiveRate * TIGHTENING);
+        Segment[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        segments = grown;
+        return next;
+    }
+
+    private static long hash(CharSequence key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long secondHash(long h1) {
+        return mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Segment {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+
+        private Segment(long capacity, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            long wordCount = Math.max(1, (optimalBits + 63) >>> 6);
+            if (wordCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter segment too large: " + optimalBits + " bits");
+            }
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.words = new AtomicLongArray((int) wordCount);
+            this.bits = wordCount << 6;
+            this.hashes = (int) Math.max(1, Math.round((double) bits / capacity * LN2));
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(combined, bits);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(combined, bits);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long old;
+                while (((old = words.get(word)) & mask) == 0 && !words.compareAndSet(word, old, old | mask)) {
+                    Thread.onSpinWait();
+                }
+                combined += h2;
+            }
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.georgedroidnegroid.auth_service.breach;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Screens new passwords against the offline {@link BreachedPasswordIndex} configured by
+ * {@code auth.breached-passwords.index-path}. Without a configured path every password passes;
+ * a configured index that cannot be opened fails startup rather than silently accepting breached passwords.
+ */
+@Slf4j
+@Component
+public class BreachedPasswordChecker {
+
+    private final BreachedPasswordIndex index;
+    private final Counter rejectedCounter;
+
+    public BreachedPasswordChecker(MeterRegistry meterRegistry,
+                                   @Value("${auth.breached-passwords.index-path:}") String indexPath) {
+        if (indexPath.isBlank()) {
+            this.index = null;
+            log.info("Breached password screening is disabled: auth.breached-passwords.index-path is not set");
+        } else {
+            try {
+                this.index = BreachedPasswordIndex.open(Path.of(indexPath));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open breached password index " + indexPath, e);
+            }
+            log.info("Breached password index {} opened with {} hashes", indexPath, index.size());
+        }
+
+        this.rejectedCounter = Counter.builder("auth.breached-passwords.rejected")
+                .description("Registrations rejected because the password appears in a known breach")
+                .register(meterRegistry);
+        Gauge.builder("auth.breached-passwords.entries", this, checker -> checker.index == null ? 0 : checker.index.size())
+                .description("Password hashes in the breached password index").register(meterRegistry);
+    }
+
+    public boolean isBreached(String password) {
+        if (index == null || !index.isBreached(password)) {
+            return false;
+        }
+        rejectedCounter.increment();
+        return true;
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+    }
+}
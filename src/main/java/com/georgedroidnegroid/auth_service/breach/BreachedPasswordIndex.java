@@ -0,0 +1,200 @@
+package com.georgedroidnegroid.auth_service.breach;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.DigestException;
+
+/**
+ * Read-only set of breached passwords, stored as the sorted first 8 bytes of their SHA-1 hashes.
+ * <pre>
+ * header:  int magic "BPI1" | int entry size (8) | long entry count
+ * entries: unsigned big-endian longs in ascending order, no duplicates
+ * </pre>
+ * The file is memory-mapped, so residency is left to the OS page cache and the heap only holds the mapping.
+ * SHA-1 prefixes are uniformly distributed, which makes interpolation search converge in a few probes;
+ * a lookup allocates nothing once the calling thread's digest and buffers exist.
+ * With 64-bit prefixes, a password is reported as breached by mistake with probability about count / 2^64.
+ */
+public final class BreachedPasswordIndex implements Closeable {
+
+    static final int MAGIC = 0x42504931;
+    static final int ENTRY_BYTES = Long.BYTES;
+    static final int HEADER_BYTES = 16;
+
+    // Each mapping covers 2^27 entries (1 GiB): a single MappedByteBuffer cannot exceed 2 GiB
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final int INTERPOLATION_STEPS = 8;
+    private static final int MAX_PASSWORD_CHARS = 1024;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long count;
+
+    private final ThreadLocal<Hasher> hashers = ThreadLocal.withInitial(Hasher::new);
+
+    private BreachedPasswordIndex(FileChannel channel, MappedByteBuffer[] segments, long count) {
+        this.channel = channel;
+        this.segments = segments;
+        this.count = count;
+    }
+
+    public static BreachedPasswordIndex open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != ENTRY_BYTES) {
+                throw new IOException(file + " is not a breached password index");
+            }
+            long count = header.getLong(8);
+            if (channel.size() != HEADER_BYTES + count * ENTRY_BYTES) {
+                throw new IOException(file + " is truncated: expected " + count + " entries");
+            }
+
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((count + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long) i << SEGMENT_SHIFT;
+                long entries = Math.min(SEGMENT_MASK + 1, count - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + first * ENTRY_BYTES, entries * ENTRY_BYTES);
+                segments[i].order(ByteOrder.BIG_ENDIAN);
+            }
+            return new BreachedPasswordIndex(channel, segments, count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public boolean isBreached(CharSequence password) {
+        if (password == null || password.length() > MAX_PASSWORD_CHARS) {
+            return false;
+        }
+        return contains(hashers.get().prefix(password));
+    }
+
+    /**
+     * @param prefix the first 8 bytes of a SHA-1 hash as a big-endian long
+     */
+    public boolean contains(long prefix) {
+        if (count == 0) {
+            return false;
+        }
+        long low = 0;
+        long high = count - 1;
+        long lowKey = entry(low);
+        long highKey = entry(high);
+        if (Long.compareUnsigned(prefix, lowKey) < 0 || Long.compareUnsigned(prefix, highKey) > 0) {
+            return false;
+        }
+
+        for (int step = 0; low <= high; step++) {
+            long middle;
+            // Keys are unsigned; halving them keeps the differences positive as signed longs
+            long span = (highKey >>> 1) - (lowKey >>> 1);
+            if (step < INTERPOLATION_STEPS && span > 0) {
+                double fraction = (double) ((prefix >>> 1) - (lowKey >>> 1)) / span;
+                middle = low + (long) (fraction * (high - low));
+                middle = Math.max(low, Math.min(high, middle));
+            } else {
+                middle = (low + high) >>> 1;
+            }
+
+            long key = entry(middle);
+            int comparison = Long.compareUnsigned(key, prefix);
+            if (comparison == 0) {
+                return true;
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+                if (low <= high) {
+                    lowKey = entry(low);
+                }
+            } else {
+                high = middle - 1;
+                if (low <= high) {
+                    highKey = entry(high);
+                }
+            }
+        }
+        return false;
+    }
+
+    private long entry(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) * ENTRY_BYTES);
+    }
+
+    static long prefixOf(byte[] sha1) {
+        long prefix = 0;
+        for (int i = 0; i < ENTRY_BYTES; i++) {
+            prefix = prefix << 8 | (sha1[i] & 0xFF);
+        }
+        return prefix;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Per-thread SHA-1 over the UTF-8 bytes of the password, without creating a String or byte array per call.
+     */
+    private static final class Hasher {
+        private final MessageDigest sha1;
+        private final byte[] utf8 = new byte[MAX_PASSWORD_CHARS * 3];
+        private final byte[] digest = new byte[20];
+
+        Hasher() {
+            try {
+                sha1 = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        long prefix(CharSequence password) {
+            int length = 0;
+            for (int i = 0; i < password.length(); i++) {
+                char c = password.charAt(i);
+                if (c < 0x80) {
+                    utf8[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    utf8[length++] = (byte) (0xC0 | (c >> 6));
+                    utf8[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < password.length()
+                        && Character.isLowSurrogate(password.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, password.charAt(++i));
+                    utf8[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    utf8[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    utf8[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    utf8[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    utf8[length++] = '?';
+                } else {
+                    utf8[length++] = (byte) (0xE0 | (c >> 12));
+                    utf8[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    utf8[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            sha1.update(utf8, 0, length);
+            try {
+                sha1.digest(digest, 0, digest.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            return prefixOf(digest);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.georgedroidnegroid.auth_service.breach;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Builds a {@link BreachedPasswordIndex} file from plain-text lists, one entry per line. A line is either a
+ * password or a SHA-1 hash in hex, optionally followed by {@code :count} as in the Have I Been Pwned
+ * downloads. Files ending in {@code .gz} are decompressed on the fly.
+ * <pre>
+ * java -cp auth-service.jar -Dloader.main=com.georgedroidnegroid.auth_service.breach.BreachedPasswordIndexBuilder \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      --out breached-passwords.idx --in pwned-passwords-sha1.txt[,more.txt.gz] [--run-entries 67108864]
+ * </pre>
+ * Lists larger than memory are sorted in runs of {@code --run-entries} prefixes (8 bytes each) that are
+ * written to temporary files and merged, so the heap needed is bounded by the run size.
+ */
+public final class BreachedPasswordIndexBuilder {
+
+    private static final int SHA1_HEX_LENGTH = 40;
+
+    private BreachedPasswordIndexBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path out = Path.of(option(args, "--out", null));
+        List<Path> inputs = Arrays.stream(option(args, "--in", null).split(",")).map(Path::of).toList();
+        int runEntries = Integer.parseInt(option(args, "--run-entries", "67108864"));
+
+        long start = System.nanoTime();
+        long count = build(inputs, out, runEntries);
+        System.out.printf("Wrote %d breached password hashes to %s in %d s%n",
+                count, out, (System.nanoTime() - start) / 1_000_000_000L);
+    }
+
+    /**
+     * @return the number of distinct entries written
+     */
+    public static long build(List<Path> inputs, Path out, int runEntries) throws IOException {
+        MessageDigest sha1 = sha1();
+        List<Path> runs = new ArrayList<>();
+        long[] run = new long[runEntries];
+        int size = 0;
+
+        try {
+            for (Path input : inputs) {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(open(input), StandardCharsets.UTF_8), 1 << 16)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isEmpty()) {
+                            continue;
+                        }
+                        run[size++] = prefix(line, sha1);
+                        if (size == run.length) {
+                            runs.add(writeRun(run, size, out));
+                            size = 0;
+                        }
+                    }
+                }
+            }
+            if (size > 0 || runs.isEmpty()) {
+                runs.add(writeRun(run, size, out));
+            }
+            run = null;
+
+            return merge(runs, out);
+        } finally {
+            for (Path path : runs) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    static long prefix(String line, MessageDigest sha1) {
+        int colon = line.indexOf(':');
+        String hash = colon < 0 ? line : line.substring(0, colon);
+        if (hash.length() == SHA1_HEX_LENGTH && isHex(hash)) {
+            return Long.parseUnsignedLong(hash.substring(0, BreachedPasswordIndex.ENTRY_BYTES * 2), 16);
+        }
+        return BreachedPasswordIndex.prefixOf(sha1.digest(line.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Path writeRun(long[] run, int size, Path out) throws IOException {
+        // Flipping the sign bit makes signed order equal to unsigned order
+        for (int i = 0; i < size; i++) {
+            run[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(run, 0, size);
+
+        Path file = Files.createTempFile(out.toAbsolutePath().getParent(), "breached-run-", ".bin");
+        try (DataOutputStream stream = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || run[i] != run[i - 1]) {
+                    stream.writeLong(run[i] ^ Long.MIN_VALUE);
+                }
+            }
+        }
+        return file;
+    }
+
+    private static long merge(List<Path> runs, Path out) throws IOException {
+        Path partial = Files.createTempFile(out.toAbsolutePath().getParent(), "breached-index-", ".tmp");
+        long count = 0;
+        List<DataInputStream> streams = new ArrayList<>();
+        try {
+            PriorityQueue<RunHead> heads = new PriorityQueue<>(
+                    (left, right) -> Long.compareUnsigned(left.value, right.value));
+            for (Path run : runs) {
+                DataInputStream stream = new DataInputStream(
+                        new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+                streams.add(stream);
+                RunHead head = new RunHead(stream);
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+
+            try (DataOutputStream stream = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16))) {
+                stream.writeInt(BreachedPasswordIndex.MAGIC);
+                stream.writeInt(BreachedPasswordIndex.ENTRY_BYTES);
+                stream.writeLong(0);
+
+                long previous = 0;
+                while (!heads.isEmpty()) {
+                    RunHead head = heads.poll();
+                    if (count == 0 || head.value != previous) {
+                        stream.writeLong(head.value);
+                        previous = head.value;
+                        count++;
+                    }
+                    if (head.advance()) {
+                        heads.add(head);
+                    }
+                }
+            }
+
+            // The entry count is only known after merging
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, count), 8);
+            }
+            Files.move(partial, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            for (DataInputStream stream : streams) {
+                stream.close();
+            }
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private static InputStream open(Path input) throws IOException {
+        InputStream stream = Files.newInputStream(input);
+        return input.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(stream, 1 << 16) : stream;
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        if (defaultValue == null) {
+            throw new IllegalArgumentException("Missing required option " + name);
+        }
+        return defaultValue;
+    }
+
+    private static final class RunHead {
+        private final DataInputStream stream;
+        private long value;
+
+        RunHead(DataInputStream stream) {
+            this.stream = stream;
+        }
+
+        boolean advance() throws IOException {
+            try {
+                value = stream.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.georgedroidnegroid.auth_service.circuit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. Closed, it records the outcome of the last {@code windowSize} calls and opens
+ * when failures (errors and calls slower than the slow-call threshold) reach {@code failureRatePercent} of them.
+ * Open, it rejects calls for {@code openDuration}, then lets {@code halfOpenCalls} trial calls through:
+ * all of them must succeed to close again, any failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public record Transition(String name, State from, State to) {
+    }
+
+    private final String name;
+    private final int failureRatePercent;
+    private final int minimumCalls;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    private final Consumer<Transition> listener;
+
+    // guarded by this
+    private final boolean[] window;
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private volatile State state = State.CLOSED;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent,
+                          long slowCallMs, long openDurationMs, int halfOpenCalls, Consumer<Transition> listener) {
+        this(name, windowSize, minimumCalls, failureRatePercent, slowCallMs, openDurationMs, halfOpenCalls,
+                listener, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent,
+                   long slowCallMs, long openDurationMs, int halfOpenCalls,
+                   Consumer<Transition> listener, LongSupplier nanoClock) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenCalls = halfOpenCalls;
+        this.listener = listener;
+        this.nanoClock = nanoClock;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return false when the call must not be attempted; otherwise exactly one of
+     * {@link #onSuccess} or {@link #onFailure} has to follow
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        Transition transition = null;
+        boolean permitted;
+        synchronized (this) {
+            if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+                transition = transitionTo(State.HALF_OPEN);
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            permitted = switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> halfOpenPermits-- > 0;
+            };
+        }
+        publish(transition);
+        return permitted;
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos);
+    }
+
+    public void onFailure() {
+        record(true);
+    }
+
+    public void reset() {
+        Transition transition;
+        synchronized (this) {
+            transition = transitionTo(State.CLOSED);
+        }
+        publish(transition);
+    }
+
+    private void record(boolean failed) {
+        Transition transition = null;
+        synchronized (this) {
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (failed) {
+                        transition = transitionTo(State.OPEN);
+                    } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                        transition = transitionTo(State.CLOSED);
+                    }
+                }
+                case CLOSED -> {
+                    if (recorded == window.length) {
+                        if (window[windowIndex]) {
+                            failures--;
+                        }
+                    } else {
+                        recorded++;
+                    }
+                    window[windowIndex] = failed;
+                    if (failed) {
+                        failures++;
+                    }
+                    windowIndex = (windowIndex + 1) % window.length;
+
+                    if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+                        transition = transitionTo(State.OPEN);
+                    }
+                }
+                case OPEN -> {
+                    // a call admitted before the breaker opened; its outcome is already accounted for
+                }
+            }
+        }
+        publish(transition);
+    }
+
+    private Transition transitionTo(State to) {
+        State from = state;
+        if (from == to) {
+            return null;
+        }
+        state = to;
+        if (to == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        }
+        recorded = 0;
+        failures = 0;
+        windowIndex = 0;
+        return new Transition(name, from, to);
+    }
+
+    private void publish(Transition transition) {
+        if (transition != null) {
+            listener.accept(transition);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.georgedroidnegroid.auth_service.circuit;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Thrown instead of calling the database while the circuit breaker is open.
+ */
+public class CircuitBreakerOpenException extends DataAccessResourceFailureException {
+
+    public CircuitBreakerOpenException(String name) {
+        super("Circuit breaker '" + name + "' is open");
+    }
+}
@@ -0,0 +1,88 @@
+package com.georgedroidnegroid.auth_service.circuit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+/**
+ * Guards repository calls with the circuit breaker. Only infrastructure failures (no connection, timeouts)
+ * count against the database; business outcomes such as constraint violations count as successful calls.
+ */
+public class CircuitBreakerRepositoryInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<CircuitBreaker> circuitBreakerProvider;
+    private volatile CircuitBreaker circuitBreaker;
+
+    public CircuitBreakerRepositoryInterceptor(ObjectProvider<CircuitBreaker> circuitBreakerProvider) {
+        this.circuitBreakerProvider = circuitBreakerProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        CircuitBreaker breaker = breaker();
+        if (!breaker.tryAcquirePermission()) {
+            throw new CircuitBreakerOpenException(breaker.getName());
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            breaker.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Throwable e) {
+            if (isInfrastructureFailure(e)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess(System.nanoTime() - start);
+            }
+            throw e;
+        }
+    }
+
+    static boolean isInfrastructureFailure(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof CircuitBreakerOpenException || t instanceof ConcurrencyFailureException) {
+                return false;
+            }
+            if (t instanceof DataAccessResourceFailureException
+                    || t instanceof TransientDataAccessException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof JDBCConnectionException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLRecoverableException) {
+                return true;
+            }
+            // SQLSTATE class 08: connection exception
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CircuitBreaker breaker() {
+        CircuitBreaker breaker = circuitBreaker;
+        if (breaker == null) {
+            breaker = circuitBreakerProvider.getObject();
+            circuitBreaker = breaker;
+        }
+        return breaker;
+    }
+}
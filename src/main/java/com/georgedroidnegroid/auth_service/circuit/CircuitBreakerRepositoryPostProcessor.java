@@ -0,0 +1,30 @@
+package com.georgedroidnegroid.auth_service.circuit;
+
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds {@link CircuitBreakerRepositoryInterceptor} to the {@link AuthRepository} proxy. The breaker itself is
+ * resolved on first use, so this post-processor does not force metrics and event infrastructure to start early.
+ */
+public class CircuitBreakerRepositoryPostProcessor implements BeanPostProcessor {
+
+    private final CircuitBreakerRepositoryInterceptor interceptor;
+
+    public CircuitBreakerRepositoryPostProcessor(ObjectProvider<CircuitBreaker> circuitBreaker) {
+        this.interceptor = new CircuitBreakerRepositoryInterceptor(circuitBreaker);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                && AuthRepository.class.equals(factoryBean.getObjectType())) {
+            factoryBean.addRepositoryFactoryCustomizer(repositoryFactory ->
+                    repositoryFactory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(interceptor)));
+        }
+        return bean;
+    }
+}
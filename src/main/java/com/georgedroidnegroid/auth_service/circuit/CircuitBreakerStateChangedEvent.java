@@ -0,0 +1,7 @@
+package com.georgedroidnegroid.auth_service.circuit;
+
+/**
+ * Published as a Spring application event on every state transition.
+ */
+public record CircuitBreakerStateChangedEvent(String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+}
@@ -0,0 +1,56 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import com.georgedroidnegroid.auth_service.circuit.CircuitBreaker;
+import com.georgedroidnegroid.auth_service.circuit.CircuitBreakerRepositoryPostProcessor;
+import com.georgedroidnegroid.auth_service.circuit.CircuitBreakerStateChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "auth.circuit-breaker.enabled", havingValue = "true", matchIfMissing = true)
+public class CircuitBreakerConfig {
+
+    private static final String REPOSITORY_BREAKER = "auth-repository";
+
+    @Bean
+    public static CircuitBreakerRepositoryPostProcessor circuitBreakerRepositoryPostProcessor(
+            ObjectProvider<CircuitBreaker> circuitBreaker) {
+        return new CircuitBreakerRepositoryPostProcessor(circuitBreaker);
+    }
+
+    @Bean
+    public CircuitBreaker repositoryCircuitBreaker(
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${auth.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${auth.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${auth.circuit-breaker.failure-rate-percent:50}") int failureRatePercent,
+            @Value("${auth.circuit-breaker.slow-call-ms:2000}") long slowCallMs,
+            @Value("${auth.circuit-breaker.open-duration-ms:5000}") long openDurationMs,
+            @Value("${auth.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        CircuitBreaker breaker = new CircuitBreaker(REPOSITORY_BREAKER, windowSize, minimumCalls, failureRatePercent,
+                slowCallMs, openDurationMs, halfOpenCalls, transition -> {
+            log.warn("Circuit breaker '{}' changed from {} to {}", transition.name(), transition.from(), transition.to());
+            meterRegistry.counter("auth.circuit-breaker.transitions",
+                    "name", transition.name(), "to", transition.to().name().toLowerCase(Locale.ROOT)).increment();
+            eventPublisher.publishEvent(
+                    new CircuitBreakerStateChangedEvent(transition.name(), transition.from(), transition.to()));
+        });
+
+        Gauge.builder("auth.circuit-breaker.state", breaker, b -> b.getState().ordinal())
+                .tag("name", REPOSITORY_BREAKER)
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        return breaker;
+    }
+}
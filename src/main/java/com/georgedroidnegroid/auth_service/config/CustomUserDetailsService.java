@@ -1,31 +1,51 @@
 package com.georgedroidnegroid.auth_service.config;
 
 import com.georgedroidnegroid.auth_service.entity.User;
-import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.lookup.UserLookupCoalescer;
+import com.georgedroidnegroid.auth_service.utils.EmailNormalizer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final AuthRepository authRepository;
+    public static final String OPS_ROLE = "OPS";
+
+    private final UserLookupCoalescer userLookupCoalescer;
+    private final Set<String> opsEmails;
 
     @Autowired
-    public CustomUserDetailsService(AuthRepository authRepository) {
-        this.authRepository = authRepository;
+    public CustomUserDetailsService(UserLookupCoalescer userLookupCoalescer,
+                                    @Value("${auth.ops.emails:}") String[] opsEmails) {
+        this.userLookupCoalescer = userLookupCoalescer;
+        this.opsEmails = Arrays.stream(opsEmails)
+                .filter(email -> !email.isBlank())
+                .map(EmailNormalizer::normalize)
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = authRepository.findByEmail(email)
+        User user = userLookupCoalescer.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPasswordHash())
-                .build();
+        org.springframework.security.core.userdetails.User.UserBuilder builder =
+                org.springframework.security.core.userdetails.User.builder()
+                        .username(user.getEmail())
+                        .password(user.getPasswordHash());
+        if (opsEmails.contains(EmailNormalizer.normalize(user.getEmail()))) {
+            builder.roles(OPS_ROLE);
+        }
+        return builder.build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tunes the HTTP/2 protocol Spring Boot adds to the Tomcat connector when {@code server.http2.enabled=true}.
+ * Without TLS that is h2c: clients use prior knowledge or an {@code Upgrade: h2c} request, and HPACK then
+ * sends repeated headers such as the Bearer token as small table references.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2Config {
+
+    @Bean
+    public TomcatConnectorCustomizer http2ProtocolCustomizer(
+            @Value("${auth.http2.max-concurrent-streams:200}") long maxConcurrentStreams,
+            @Value("${auth.http2.max-concurrent-stream-execution:50}") int maxConcurrentStreamExecution,
+            @Value("${auth.http2.keep-alive-timeout-ms:60000}") long keepAliveTimeoutMs,
+            @Value("${auth.http2.initial-window-size:1048576}") int initialWindowSize) {
+        return connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+                    http2.setKeepAliveTimeout(keepAliveTimeoutMs);
+                    http2.setInitialWindowSize(initialWindowSize);
+                }
+            }
+        };
+    }
+}
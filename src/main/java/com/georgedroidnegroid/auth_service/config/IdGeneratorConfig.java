@@ -0,0 +1,16 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import com.georgedroidnegroid.auth_service.entity.SnowflakeIdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeWorkerIdCustomizer(@Value("${auth.id.worker-id:0}") int workerId) {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.WORKER_ID, workerId);
+    }
+}
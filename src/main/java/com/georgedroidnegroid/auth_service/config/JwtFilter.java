@@ -1,17 +1,29 @@
 package com.georgedroidnegroid.auth_service.config;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.georgedroidnegroid.auth_service.audit.AuditEventType;
+import com.georgedroidnegroid.auth_service.audit.AuditLog;
+import com.georgedroidnegroid.auth_service.logging.AccessLogFilter;
+import com.georgedroidnegroid.auth_service.profiling.UserLookupEvent;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 
 @Component
@@ -19,48 +31,88 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService customUserDetailsService;
+    private final AuditLog auditLog;
+    private final boolean degradedModeEnabled;
+    private final Duration degradedMaxTokenAge;
 
-    public JwtFilter(JwtUtil jwtUtil, CustomUserDetailsService customUserDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil, CustomUserDetailsService customUserDetailsService, AuditLog auditLog,
+                     @Value("${auth.degraded-mode.enabled:true}") boolean degradedModeEnabled,
+                     @Value("${auth.degraded-mode.max-token-age-seconds:900}") long degradedMaxTokenAgeSeconds) {
         this.jwtUtil = jwtUtil;
         this.customUserDetailsService = customUserDetailsService;
+        this.auditLog = auditLog;
+        this.degradedModeEnabled = degradedModeEnabled;
+        this.degradedMaxTokenAge = Duration.ofSeconds(degradedMaxTokenAgeSeconds);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        String authHeader = request.getHeader("Authorization");
+        try {
+            String authHeader = request.getHeader("Authorization");
 
-        if (authHeader != null && !authHeader.isBlank() && authHeader.startsWith("Bearer ")) {
-            String jwt = authHeader.substring(7);
+            if (authHeader != null && !authHeader.isBlank() && authHeader.startsWith("Bearer ")) {
+                String jwt = authHeader.substring(7);
 
-            if (jwt.isBlank()) {
-                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid JWT Token in Bearer Header");
-                return;
-            }
+                if (jwt.isBlank()) {
+                    auditLog.record(AuditEventType.TOKEN_REJECTED, null, null, "BLANK_TOKEN");
+                    response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid JWT Token in Bearer Header");
+                    return;
+                }
 
-            try {
-                String email = jwtUtil.validateTokenAndRetrieveClaim(jwt);
-                int userId = jwtUtil.validateTokenAndRetrieveUserId(jwt);
+                try {
+                    DecodedJWT token = jwtUtil.verify(jwt);
+                    String email = token.getClaim("email").asString();
+                    long userId = token.getClaim("user_id").asLong();
+                    MDC.put(AccessLogFilter.USER_ID, Long.toString(userId));
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+                    UserDetails userDetails;
+                    UserLookupEvent lookup = new UserLookupEvent();
+                    lookup.source = "token";
+                    lookup.begin();
+                    try {
+                        userDetails = customUserDetailsService.loadUserByUsername(email);
+                        lookup.found = true;
+                    } catch (DataAccessException | TransactionException e) {
+                        // The user store is down or the circuit breaker is open: this says nothing about the token
+                        if (!acceptableWithoutUserStore(token)) {
+                            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "User store unavailable");
+                            return;
+                        }
+                        userDetails = User.withUsername(email).password("").authorities(Collections.emptyList()).build();
+                    } finally {
+                        lookup.commit();
+                    }
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null
-                );
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
 
-                if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                    if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
 
-                request.setAttribute("user_id", userId);
+                    request.setAttribute("user_id", userId);
 
-            } catch (Exception e) {
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or Expired JWT Token");
-                return;
+                } catch (Exception e) {
+                    auditLog.record(AuditEventType.TOKEN_REJECTED, null, null, e.getClass().getSimpleName());
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or Expired JWT Token");
+                    return;
+                }
             }
+
+            filterChain.doFilter(request, response);
+        } finally {
+            // Not left to AccessLogFilter: it is optional, and a pooled thread must not carry the id into another request
+            MDC.remove(AccessLogFilter.USER_ID);
         }
+    }
 
-        filterChain.doFilter(request, response);
+    private boolean acceptableWithoutUserStore(DecodedJWT token) {
+        Instant issuedAt = token.getIssuedAtAsInstant();
+        return degradedModeEnabled && issuedAt != null
+                && !issuedAt.plus(degradedMaxTokenAge).isBefore(Instant.now());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * HS256 token issuance without the generic JWT builder. The encoded header and the constant claims are
+ * computed once; per token only email, user_id, iat and exp are written into per-thread buffers that are
+ * reused across calls, and the per-thread Mac is initialized with the key only once.
+ * Produces the same claims as the auth0 builder, so tokens verify with {@link JwtUtil} unchanged.
+ */
+final class JwtTokenMinter {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 32;
+
+    private static final byte[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEADER_SEGMENT = (Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.US_ASCII)) + ".")
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] USER_ID_CLAIM = "\",\"user_id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IAT_CLAIM = ",\"iat\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_CLAIM = ",\"exp\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] secret;
+    private final byte[] claimsPrefix;
+    private final long ttlSeconds;
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    JwtTokenMinter(String secret, String subject, String issuer, Duration ttl) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.ttlSeconds = ttl.toSeconds();
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        newMac(); // fail at startup, not on the first login, if the key is unusable
+
+        Buffers prefix = new Buffers();
+        int length = writeAscii(prefix, 0, "{\"sub\":\"");
+        length = writeJsonString(prefix, length, subject);
+        length = writeAscii(prefix, length, "\",\"iss\":\"");
+        length = writeJsonString(prefix, length, issuer);
+        length = writeAscii(prefix, length, "\",\"email\":\"");
+        this.claimsPrefix = Arrays.copyOf(prefix.json, length);
+    }
+
+    String mint(String email, long userId, long nowMillis) {
+        Buffers buffer = buffers.get();
+        long issuedAt = nowMillis / 1000;
+
+        buffer.ensureJsonCapacity(claimsPrefix.length + email.length() * 6 + 64);
+        System.arraycopy(claimsPrefix, 0, buffer.json, 0, claimsPrefix.length);
+        int json = writeJsonString(buffer, claimsPrefix.length, email);
+        json = write(buffer.json, json, USER_ID_CLAIM);
+        json = writeLong(buffer.json, json, userId);
+        json = write(buffer.json, json, IAT_CLAIM);
+        json = writeLong(buffer.json, json, issuedAt);
+        json = write(buffer.json, json, EXP_CLAIM);
+        json = writeLong(buffer.json, json, issuedAt + ttlSeconds);
+        buffer.json[json++] = '}';
+
+        buffer.ensureTokenCapacity(HEADER_SEGMENT.length + encodedLength(json) + 1 + encodedLength(SIGNATURE_BYTES));
+        byte[] token = buffer.token;
+        int position = write(token, 0, HEADER_SEGMENT);
+        position = encodeBase64Url(buffer.json, json, token, position);
+
+        Mac mac = macs.get();
+        mac.update(token, 0, position);
+        try {
+            mac.doFinal(buffer.signature, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+
+        token[position++] = '.';
+        position = encodeBase64Url(buffer.signature, SIGNATURE_BYTES, token, position);
+        return new String(token, 0, position, StandardCharsets.ISO_8859_1);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot initialize " + ALGORITHM + " with the configured jwt_secret", e);
+        }
+    }
+
+    private static int writeAscii(Buffers buffer, int position, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.json[position++] = (byte) value.charAt(i);
+        }
+        return position;
+    }
+
+    private static int writeJsonString(Buffers buffer, int position, String value) {
+        buffer.ensureJsonCapacity(position + value.length() * 6 + 64);
+        byte[] out = buffer.json;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out[position++] = '\\';
+                out[position++] = (byte) c;
+            } else if (c < 0x20) {
+                out[position++] = '\\';
+                out[position++] = 'u';
+                out[position++] = '0';
+                out[position++] = '0';
+                out[position++] = HEX[c >> 4];
+                out[position++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[position++] = '?';
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    private static int write(byte[] out, int position, byte[] bytes) {
+        System.arraycopy(bytes, 0, out, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private static int writeLong(byte[] out, int position, long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                return write(out, position, Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            }
+            out[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    private static int encodedLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    private static int encodeBase64Url(byte[] source, int length, byte[] out, int position) {
+        int i = 0;
+        for (int end = length - length % 3; i < end; i += 3) {
+            int bits = (source[i] & 0xFF) << 16 | (source[i + 1] & 0xFF) << 8 | (source[i + 2] & 0xFF);
+            out[position++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            out[position++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            out[position++] = BASE64_URL[(bits >>> 6) & 0x3F];
+            out[position++] = BASE64_URL[bits & 0x3F];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (source[i] & 0xFF) << 16;
+            out[position++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            out[position++] = BASE64_URL[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (source[i] & 0xFF) << 16 | (source[i + 1] & 0xFF) << 8;
+            out[position++] = BASE64_URL[(bits >>> 18) & 0x3F];
+            out[position++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            out[position++] = BASE64_URL[(bits >>> 6) & 0x3F];
+        }
+        return position;
+    }
+
+    private static final class Buffers {
+        private byte[] json = new byte[256];
+        private byte[] token = new byte[512];
+        private final byte[] signature = new byte[SIGNATURE_BYTES];
+
+        void ensureJsonCapacity(int capacity) {
+            if (json.length < capacity) {
+                json = Arrays.copyOf(json, Math.max(capacity, json.length * 2));
+            }
+        }
+
+        void ensureTokenCapacity(int capacity) {
+            if (token.length < capacity) {
+                token = new byte[Math.max(capacity, token.length * 2)];
+            }
+        }
+    }
+}
@@ -6,52 +6,73 @@ import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.georgedroidnegroid.auth_service.profiling.TokenVerifyEvent;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import java.time.ZonedDateTime;
-import java.util.Date;
+import java.time.Duration;
 
 @Component
 public class JwtUtil {
 
+    private static final String SUBJECT = "User details";
+    private static final String ISSUER = "springapp";
+    private static final Duration TOKEN_TTL = Duration.ofMinutes(60);
+
     @Value("${jwt_secret}")
     private String SECRET_KEY;
 
+    private JwtTokenMinter tokenMinter;
+
+    @PostConstruct
+    void initTokenMinter() {
+        tokenMinter = new JwtTokenMinter(SECRET_KEY, SUBJECT, ISSUER, TOKEN_TTL);
+    }
+
+
+    public String generateToken(String email, long userId) {
+        return tokenMinter.mint(email, userId, System.currentTimeMillis());
+    }
+
 
-    public String generateToken(String email, int userId) {
-        Date expirationDate = Date.from(ZonedDateTime.now().plusMinutes(60).toInstant());
+    public DecodedJWT verify(String token) throws JWTVerificationException {
+        TokenVerifyEvent event = new TokenVerifyEvent();
+        event.begin();
+        try {
+            JWTVerifier verifier = JWT.require(Algorithm.HMAC256(SECRET_KEY))
+                    .withSubject(SUBJECT)
+                    .withIssuer(ISSUER)
+                    .build();
 
-        return JWT.create()
-                .withSubject("User details")
-                .withClaim("email", email)
-                .withClaim("user_id", userId)
-                .withIssuedAt(new Date())
-                .withIssuer("springapp")
-                .withExpiresAt(expirationDate)
-                .sign(Algorithm.HMAC256(SECRET_KEY));
+            DecodedJWT jwt = verifier.verify(token);
+            event.valid = true;
+            return jwt;
+        } finally {
+            event.commit();
+        }
     }
 
 
-    public int validateTokenAndRetrieveUserId(String token) throws JWTVerificationException {
+    public long validateTokenAndRetrieveUserId(String token) throws JWTVerificationException {
         JWTVerifier verifier = JWT.require(Algorithm.HMAC256(SECRET_KEY))
-                .withSubject("User details")
-                .withIssuer("springapp")
+                .withSubject(SUBJECT)
+                .withIssuer(ISSUER)
                 .build();
 
         DecodedJWT jwt = verifier.verify(token);
-        return jwt.getClaim("user_id").asInt();
+        return jwt.getClaim("user_id").asLong();
     }
 
 
 
     public String validateTokenAndRetrieveClaim(String token) throws JWTVerificationException {
         JWTVerifier verifier = JWT.require(Algorithm.HMAC256(SECRET_KEY))
-                .withSubject("User details")
-                .withIssuer("springapp")
+                .withSubject(SUBJECT)
+                .withIssuer(ISSUER)
                 .build();
 
         DecodedJWT jwt = verifier.verify(token);
         return jwt.getClaim("email").asString();
     }
 
-}
\ No newline at end of file
+}
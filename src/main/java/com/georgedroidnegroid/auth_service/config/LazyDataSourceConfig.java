@@ -0,0 +1,37 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import com.georgedroidnegroid.auth_service.profiling.DbWaitRecordingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Defers taking a pooled connection until a transaction runs its first statement, so transactions that never
+ * reach the database (e.g. logins answered by the registered email filter) do not occupy the pool.
+ * The routing and sharding configurations already expose such a proxy as their {@code dataSource}.
+ * The time spent actually waiting for the pool is reported as a JFR event beneath the proxy.
+ */
+@Configuration
+public class LazyDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor lazyConnectionDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                DataSource target = dataSource instanceof LazyConnectionDataSourceProxy lazy
+                        ? lazy.getTargetDataSource()
+                        : dataSource;
+                return target instanceof DbWaitRecordingDataSource
+                        ? bean
+                        : new LazyConnectionDataSourceProxy(new DbWaitRecordingDataSource(target));
+            }
+        };
+    }
+}
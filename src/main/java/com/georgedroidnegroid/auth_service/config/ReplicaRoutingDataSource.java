@@ -0,0 +1,107 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to one of the replicas (round-robin) and everything else to the primary.
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * target is chosen after the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PIN_SCOPE = new ThreadLocal<>();
+
+    private final List<DataSource> targets;
+    private final String[] replicaKeys;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> lookup = new HashMap<>();
+        lookup.put(PRIMARY, primary);
+
+        this.replicaKeys = new String[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaKeys[i] = "replica-" + i;
+            lookup.put(replicaKeys[i], replicas.get(i));
+        }
+
+        this.targets = new ArrayList<>(replicas.size() + 1);
+        this.targets.add(primary);
+        this.targets.addAll(replicas);
+
+        setTargetDataSources(lookup);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Read-your-writes guard: every following lookup on this thread goes to the primary. Inside a pin scope
+     * (one web request, opened by {@link ReadYourWritesFilter}) the pin lasts until {@link #clearPin()};
+     * elsewhere (listeners, scheduled jobs, tools) it ends with the current transaction, and without a
+     * transaction there is nothing to pin.
+     */
+    public static void pinToPrimary() {
+        if (PRIMARY_PINNED.get() != null) {
+            return;
+        }
+        if (PIN_SCOPE.get() != null) {
+            PRIMARY_PINNED.set(Boolean.TRUE);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PRIMARY_PINNED.set(Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    PRIMARY_PINNED.remove();
+                }
+            });
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    public static void openPinScope() {
+        PIN_SCOPE.set(Boolean.TRUE);
+    }
+
+    /**
+     * Ends the pin and the pin scope on this thread.
+     */
+    public static void clearPin() {
+        PRIMARY_PINNED.remove();
+        PIN_SCOPE.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaKeys.length == 0
+                || PRIMARY_PINNED.get() != null
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return replicaKeys[Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.length)];
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource target : targets) {
+            if (target instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import com.georgedroidnegroid.auth_service.sharding.ShardAwareRepositoryPostProcessor;
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import com.georgedroidnegroid.auth_service.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "auth.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public static ShardRouter shardRouter(Environment environment) {
+        if (environment.getProperty("auth.datasource.routing.enabled", Boolean.class, false)) {
+            throw new IllegalStateException(
+                    "auth.sharding.enabled cannot be combined with auth.datasource.routing.enabled");
+        }
+        return new ShardRouter(shardUrls(environment).size());
+    }
+
+    @Bean
+    public static ShardAwareRepositoryPostProcessor shardAwareRepositoryPostProcessor(ShardRouter shardRouter) {
+        return new ShardAwareRepositoryPostProcessor(shardRouter);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         Environment environment,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        List<DataSource> shards = new ArrayList<>();
+
+        for (String url : shardUrls(environment)) {
+            HikariDataSource shard = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+            shard.setJdbcUrl(url);
+            shard.setPoolName("auth-shard-" + shards.size());
+            if (registry != null) {
+                shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            shards.add(shard);
+        }
+
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    private static List<String> shardUrls(Environment environment) {
+        List<String> urls = new ArrayList<>();
+        for (String url : environment.getProperty("auth.sharding.urls", String[].class, new String[0])) {
+            if (!url.isBlank()) {
+                urls.add(url.trim());
+            }
+        }
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("auth.sharding.urls must list at least one JDBC url");
+        }
+        return urls;
+    }
+}
@@ -9,11 +9,13 @@ import com.georgedroidnegroid.auth_service.dto.UserRegisterDto;
 import com.georgedroidnegroid.auth_service.service.AuthService;
 import com.georgedroidnegroid.auth_service.utils.errorresponse.UserErrorResponse;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataAccessException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.TransactionException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -88,6 +90,15 @@ public class RegisterController implements RegisterApi {
         );
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler({DataAccessException.class, TransactionException.class})
+    private ResponseEntity<UserErrorResponse> handleUnavailable(RuntimeException e) {
+        UserErrorResponse response = new UserErrorResponse(
+                "Service temporarily unavailable, retry later", System.currentTimeMillis()
+        );
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     public User convertToUser(UserRegisterDto userDto) {
         return this.modelMapper.map(userDto, User.class);
     }
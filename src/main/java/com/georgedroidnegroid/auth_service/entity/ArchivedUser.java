@@ -0,0 +1,40 @@
+package com.georgedroidnegroid.auth_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Schema of the cold copy of {@code auth_info}. Rows are moved here by {@code UserArchivalJob} and back on
+ * login over native SQL, never through JPA, so {@code auth_info} and its email index only hold live accounts.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "auth_info_archive",
+        indexes = @Index(name = "ux_auth_info_archive_email", columnList = "email", unique = true))
+public class ArchivedUser {
+    @Id
+    private long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private String passwordHash;
+
+    private Boolean isActive;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime lastLoginAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
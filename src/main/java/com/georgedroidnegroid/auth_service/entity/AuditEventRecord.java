@@ -0,0 +1,37 @@
+package com.georgedroidnegroid.auth_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Schema of the audit table. Rows are written in batches by {@code AuditLog} over JDBC, not through JPA.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "auth_audit_event")
+public class AuditEventRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String eventType;
+
+    private String email;
+
+    private Long userId;
+
+    @Column(length = 64)
+    private String remoteAddress;
+
+    private String detail;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
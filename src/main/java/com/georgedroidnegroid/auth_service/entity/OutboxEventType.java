@@ -0,0 +1,7 @@
+package com.georgedroidnegroid.auth_service.entity;
+
+public enum OutboxEventType {
+    USER_REGISTERED,
+    USER_LOGGED_IN,
+    USER_DELETED
+}
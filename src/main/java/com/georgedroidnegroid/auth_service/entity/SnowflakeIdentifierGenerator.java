@@ -0,0 +1,35 @@
+package com.georgedroidnegroid.auth_service.entity;
+
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import com.georgedroidnegroid.auth_service.sharding.SnowflakeIdGenerator;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Generator behind {@link SnowflakeId}. The worker id is read from the {@value #WORKER_ID} Hibernate setting
+ * of the session factory that creates it, which {@code IdGeneratorConfig} fills from {@code auth.id.worker-id}.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    public static final String WORKER_ID = "auth.id.worker-id";
+
+    private final SnowflakeIdGenerator generator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        ConfigurationService configuration = context.getServiceRegistry().getService(ConfigurationService.class);
+        Object workerId = configuration == null ? null : configuration.getSettings().get(WORKER_ID);
+        this.generator = new SnowflakeIdGenerator(workerId == null ? 0 : Integer.parseInt(workerId.toString().trim()));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        int bucket = object instanceof User user && user.getEmail() != null
+                ? ShardRouter.bucketFor(user.getEmail())
+                : 0;
+        return generator.nextId(bucket);
+    }
+}
@@ -1,5 +1,6 @@
 package com.georgedroidnegroid.auth_service.entity;
 
+import com.georgedroidnegroid.auth_service.bloom.RegisteredEmailEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
@@ -15,11 +16,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "auth_info")
+@EntityListeners(RegisteredEmailEntityListener.class)
+@Table(name = "auth_info",
+        indexes = @Index(name = "ux_auth_info_email", columnList = "email", unique = true))
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private int id;
+    @SnowflakeId
+    private long id;
 
     @NotEmpty(message = "Email should not be empty")
     @Email(message = "The email must be a valid email address")
@@ -37,5 +40,10 @@ public class User {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Written in coalesced batches by {@code LastLoginRecorder}, so it may lag the actual login by a few seconds.
+     */
+    private LocalDateTime lastLoginAt;
+
 
 }
@@ -0,0 +1,126 @@
+package com.georgedroidnegroid.auth_service.lifecycle;
+
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import com.georgedroidnegroid.auth_service.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code auth_info.last_login_at} current without an UPDATE on the login path. Logins only put the
+ * user id into a map, so repeated logins of one user between flushes collapse into a single entry, and a
+ * scheduled flush writes the map in JDBC batches, one transaction per shard.
+ */
+@Slf4j
+@Component
+public class LastLoginRecorder {
+
+    // The guard keeps a flush that was delayed by a failure from moving the timestamp backwards
+    private static final String UPDATE = "UPDATE auth_info SET last_login_at = ? "
+            + "WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private final Counter coalescedCounter;
+    private final Counter writtenCounter;
+    private final Counter failureCounter;
+
+    public LastLoginRecorder(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ObjectProvider<ShardRouter> shardRouter,
+                             MeterRegistry meterRegistry,
+                             @Value("${auth.last-login.enabled:true}") boolean enabled,
+                             @Value("${auth.last-login.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+
+        this.coalescedCounter = Counter.builder("auth.last-login.coalesced")
+                .description("Logins folded into an already pending last-login update").register(meterRegistry);
+        this.writtenCounter = Counter.builder("auth.last-login.written")
+                .description("Last-login timestamps written to the database").register(meterRegistry);
+        this.failureCounter = Counter.builder("auth.last-login.failures")
+                .description("Last-login flushes that failed and will be retried").register(meterRegistry);
+        Gauge.builder("auth.last-login.pending", pending, Map::size)
+                .description("Users whose last-login timestamp is waiting for the next flush").register(meterRegistry);
+    }
+
+    public void record(long userId) {
+        if (enabled && pending.put(userId, LocalDateTime.now()) != null) {
+            coalescedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        ShardRouter router = shardRouter.getIfAvailable();
+        Map<Integer, List<Map.Entry<Long, LocalDateTime>>> byShard = new TreeMap<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime loggedInAt = pending.remove(userId);
+            if (loggedInAt != null) {
+                int shard = router == null ? 0 : router.shardForId(userId);
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(Map.entry(userId, loggedInAt));
+            }
+        }
+
+        byShard.forEach((shard, updates) -> {
+            if (router != null) {
+                ShardRoutingDataSource.use(shard);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(UPDATE, updates, batchSize, (ps, update) -> {
+                            Timestamp loggedInAt = Timestamp.valueOf(update.getValue());
+                            ps.setTimestamp(1, loggedInAt);
+                            ps.setLong(2, update.getKey());
+                            ps.setTimestamp(3, loggedInAt);
+                        }));
+                writtenCounter.increment(updates.size());
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                log.warn("Last-login batch of {} users could not be written, will retry: {}", updates.size(), e.getMessage());
+                // A newer login recorded meanwhile wins over the one being put back
+                updates.forEach(update -> pending.merge(update.getKey(), update.getValue(),
+                        (newer, older) -> newer.isAfter(older) ? newer : older));
+            } finally {
+                if (router != null) {
+                    ShardRoutingDataSource.clear();
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
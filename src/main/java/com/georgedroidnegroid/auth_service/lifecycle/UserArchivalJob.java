@@ -0,0 +1,178 @@
+package com.georgedroidnegroid.auth_service.lifecycle;
+
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import com.georgedroidnegroid.auth_service.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves dormant accounts (no login for {@code auth.archive.dormant-after-days}) and deactivated accounts
+ * (unchanged for {@code auth.archive.inactive-grace-days}) from {@code auth_info} to {@code auth_info_archive}.
+ * An account without a recorded login is never treated as dormant: {@code last_login_at} is only written since
+ * {@code LastLoginRecorder} exists, so a missing value says nothing about when the user was last seen.
+ * Rows are moved in small chunks, each in its own transaction with the rows locked, walking the primary key
+ * and pausing between chunks so the job never holds locks for long or saturates the database.
+ * Archived accounts are restored on their next login by {@code AuthService}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class UserArchivalJob {
+
+    private static final String SELECT_CHUNK = "SELECT id FROM auth_info WHERE id > :after AND ("
+            + "(is_active = FALSE AND updated_at < :inactiveBefore) "
+            + "OR last_login_at < :dormantBefore) "
+            + "ORDER BY id LIMIT :limit FOR UPDATE";
+    private static final String INSERT_ARCHIVE = "INSERT INTO auth_info_archive "
+            + "(id, email, password_hash, is_active, created_at, updated_at, last_login_at, archived_at) "
+            + "SELECT id, email, password_hash, is_active, created_at, updated_at, last_login_at, :archivedAt "
+            + "FROM auth_info WHERE id IN (:ids)";
+    private static final String DELETE_LIVE = "DELETE FROM auth_info WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final Duration dormantAfter;
+    private final Duration inactiveGrace;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int maxRowsPerRun;
+
+    private final Counter archivedCounter;
+    private final Timer chunkTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public UserArchivalJob(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           ObjectProvider<ShardRouter> shardRouter,
+                           MeterRegistry meterRegistry,
+                           @Value("${auth.archive.dormant-after-days:365}") long dormantAfterDays,
+                           @Value("${auth.archive.inactive-grace-days:30}") long inactiveGraceDays,
+                           @Value("${auth.archive.chunk-size:500}") int chunkSize,
+                           @Value("${auth.archive.pause-ms:200}") long pauseMs,
+                           @Value("${auth.archive.max-rows-per-run:100000}") int maxRowsPerRun) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.dormantAfter = Duration.ofDays(dormantAfterDays);
+        this.inactiveGrace = Duration.ofDays(inactiveGraceDays);
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.maxRowsPerRun = maxRowsPerRun;
+
+        this.archivedCounter = Counter.builder("auth.archive.archived")
+                .description("Accounts moved from auth_info to auth_info_archive").register(meterRegistry);
+        this.chunkTimer = Timer.builder("auth.archive.chunk")
+                .description("Time to move one chunk of accounts to the archive").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${auth.archive.cron:0 30 3 * * *}")
+    public void run() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Account archival failed, will retry on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of accounts archived, at most {@code auth.archive.max-rows-per-run}
+     */
+    public int archive() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("archivedAt", Timestamp.valueOf(now))
+                    .addValue("dormantBefore", Timestamp.valueOf(now.minus(dormantAfter)))
+                    .addValue("inactiveBefore", Timestamp.valueOf(now.minus(inactiveGrace)));
+
+            int archived = 0;
+            ShardRouter router = shardRouter.getIfAvailable();
+            if (router == null) {
+                archived = archiveShard(parameters, maxRowsPerRun);
+            } else {
+                for (int shard = 0; shard < router.getShardCount() && archived < maxRowsPerRun; shard++) {
+                    ShardRoutingDataSource.use(shard);
+                    try {
+                        archived += archiveShard(parameters, maxRowsPerRun - archived);
+                    } finally {
+                        ShardRoutingDataSource.clear();
+                    }
+                }
+            }
+
+            if (archived > 0) {
+                log.info("Archived {} accounts in {} ms", archived, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveShard(MapSqlParameterSource parameters, int budget) {
+        int archived = 0;
+        long after = Long.MIN_VALUE;
+        while (archived < budget) {
+            parameters.addValue("after", after).addValue("limit", Math.min(chunkSize, budget - archived));
+
+            long start = System.nanoTime();
+            List<Long> ids = transactionTemplate.execute(status -> moveChunk(parameters));
+            chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+
+            archived += ids.size();
+            archivedCounter.increment(ids.size());
+            after = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private List<Long> moveChunk(MapSqlParameterSource parameters) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_CHUNK, parameters, Long.class);
+        if (!ids.isEmpty()) {
+            parameters.addValue("ids", ids);
+            jdbcTemplate.update(INSERT_ARCHIVE, parameters);
+            jdbcTemplate.update(DELETE_LIVE, parameters);
+        }
+        return ids;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.georgedroidnegroid.auth_service.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before Spring Security (and so before JwtFilter and any database access):
+ * requests over the adaptive limit of their endpoint group get an immediate 503.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+@ConditionalOnProperty(name = "auth.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String OVERLOADED_BODY = "{\"error\":\"Service is overloaded, retry later\"}";
+
+    private final Group login;
+    private final Group register;
+    private final Group authenticated;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${auth.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${auth.concurrency-limit.rtt-tolerance:1.5}") double rttTolerance,
+                                  @Value("${auth.concurrency-limit.login.initial-limit:20}") int loginInitialLimit,
+                                  @Value("${auth.concurrency-limit.login.max-limit:200}") int loginMaxLimit,
+                                  @Value("${auth.concurrency-limit.register.initial-limit:20}") int registerInitialLimit,
+                                  @Value("${auth.concurrency-limit.register.max-limit:200}") int registerMaxLimit,
+                                  @Value("${auth.concurrency-limit.authenticated.initial-limit:50}") int authenticatedInitialLimit,
+                                  @Value("${auth.concurrency-limit.authenticated.max-limit:500}") int authenticatedMaxLimit) {
+        this.login = new Group("login", new AdaptiveConcurrencyLimiter(
+                loginInitialLimit, minLimit, loginMaxLimit, rttTolerance), meterRegistry);
+        this.register = new Group("register", new AdaptiveConcurrencyLimiter(
+                registerInitialLimit, minLimit, registerMaxLimit, rttTolerance), meterRegistry);
+        this.authenticated = new Group("authenticated", new AdaptiveConcurrencyLimiter(
+                authenticatedInitialLimit, minLimit, authenticatedMaxLimit, rttTolerance), meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = groupFor(request.getServletPath());
+        if (!group.limiter.tryAcquire()) {
+            group.rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(OVERLOADED_BODY);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            group.limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private Group groupFor(String path) {
+        return switch (path) {
+            case "/auth/login" -> login;
+            case "/auth/register" -> register;
+            default -> authenticated;
+        };
+    }
+
+    private static final class Group {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final Counter rejected;
+
+        private Group(String name, AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+            this.limiter = limiter;
+            this.rejected = Counter.builder("auth.concurrency.rejected").tag("endpoint", name)
+                    .description("Requests rejected with 503 because the concurrency limit was reached")
+                    .register(meterRegistry);
+            Gauge.builder("auth.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).tag("endpoint", name)
+                    .description("Current adaptive concurrency limit").register(meterRegistry);
+            Gauge.builder("auth.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight).tag("endpoint", name)
+                    .description("Requests currently being processed").register(meterRegistry);
+        }
+    }
+}
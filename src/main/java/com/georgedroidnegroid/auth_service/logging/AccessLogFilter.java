@@ -0,0 +1,104 @@
+package com.georgedroidnegroid.auth_service.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+/**
+ * Outermost filter: opens the request-scoped MDC ({@code traceId}, and {@code userId} set by JwtFilter)
+ * and writes one line per request to the {@code ACCESS} logger. Errors and slow requests are always
+ * logged, successful ones only at {@code auth.access-log.sample-rate}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "auth.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String TRACE_ID = "traceId";
+    public static final String USER_ID = "userId";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(@Value("${auth.access-log.sample-rate:0.01}") double sampleRate,
+                           @Value("${auth.access-log.slow-threshold-ms:1000}") long slowThresholdMs) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (traceId == null || traceId.isBlank() || traceId.length() > 64) {
+            traceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(TRACE_ID, traceId);
+        response.setHeader(TRACE_ID_HEADER, traceId);
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = failure == null ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+            if (shouldLog(status, elapsed, failure)) {
+                // JwtFilter has already removed the user id from the MDC by the time the chain returns
+                Object userId = request.getAttribute("user_id");
+                if (userId != null) {
+                    MDC.put(USER_ID, userId.toString());
+                }
+                log(request, status, elapsed, failure);
+            }
+            MDC.remove(USER_ID);
+            MDC.remove(TRACE_ID);
+        }
+    }
+
+    private boolean shouldLog(int status, long elapsedNanos, Throwable failure) {
+        if (!accessLog.isInfoEnabled()) {
+            return false;
+        }
+        if (failure != null || status >= 400 || elapsedNanos >= slowThresholdNanos) {
+            return true;
+        }
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void log(HttpServletRequest request, int status, long elapsedNanos, Throwable failure) {
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (failure != null || status >= 500) {
+            accessLog.warn("{} {} {} {} {}", keyValue("method", request.getMethod()),
+                    keyValue("path", request.getRequestURI()), keyValue("status", status),
+                    keyValue("durationMs", durationMs),
+                    keyValue("error", failure == null ? null : failure.getClass().getSimpleName()));
+        } else {
+            accessLog.info("{} {} {} {}", keyValue("method", request.getMethod()),
+                    keyValue("path", request.getRequestURI()), keyValue("status", status),
+                    keyValue("durationMs", durationMs));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.georgedroidnegroid.auth_service.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class LoggingMetrics {
+
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        // Logback is configured before the context starts, so every async appender is already registered here
+        DroppingAsyncAppender.droppedByAppender().forEach((appender, dropped) ->
+                FunctionCounter.builder("auth.logging.dropped", dropped, LongAdder::sum)
+                        .tag("appender", appender)
+                        .description("Log events dropped instead of blocking the logging thread")
+                        .register(meterRegistry));
+    }
+}
@@ -0,0 +1,273 @@
+package com.georgedroidnegroid.auth_service.lookup;
+
+import com.georgedroidnegroid.auth_service.config.ReplicaRoutingDataSource;
+import com.georgedroidnegroid.auth_service.entity.User;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Single-flight and micro-batching in front of the user lookups by email and by id. Concurrent lookups of
+ * the same key share one in-flight query; distinct keys arriving within {@code auth.lookup-coalescing.window-micros}
+ * (or until {@code max-batch-size} keys are waiting) are loaded with one {@code IN (...)} query per shard,
+ * so a burst of N lookups takes a handful of pooled connections instead of N.
+ * <p>
+ * Batches run on the coalescer's own threads in a read-only transaction of their own, so they are served by
+ * a replica like any other read. Lookups that must see the
+ * caller's own writes (inside a read-write transaction, or pinned to the primary after a write) bypass it.
+ * Returned users are detached.
+ */
+@Component
+public class UserLookupCoalescer {
+
+    private final AuthRepository authRepository;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutMs;
+    private final ScheduledExecutorService executor;
+
+    private final Batcher<String> byEmail;
+    private final Batcher<Long> byId;
+
+    private final Counter coalescedCounter;
+    private final DistributionSummary batchSize;
+
+    public UserLookupCoalescer(AuthRepository authRepository,
+                               ObjectProvider<ShardRouter> shardRouter,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.lookup-coalescing.enabled:true}") boolean enabled,
+                               @Value("${auth.lookup-coalescing.window-micros:1000}") long windowMicros,
+                               @Value("${auth.lookup-coalescing.max-batch-size:64}") int maxBatchSize,
+                               @Value("${auth.lookup-coalescing.threads:4}") int threads,
+                               @Value("${auth.lookup-coalescing.timeout-ms:5000}") long timeoutMs) {
+        this.authRepository = authRepository;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMs = timeoutMs;
+
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-lookup-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+
+        this.byEmail = new Batcher<>("email",
+                emails -> byRequestedEmail(emails, authRepository.findAllByEmailIn(emails)),
+                email -> router() == null ? 0 : router().shardForEmail(email));
+        this.byId = new Batcher<>("id",
+                ids -> index(authRepository.findAllById(ids), User::getId),
+                id -> router() == null ? 0 : router().shardForId(id));
+
+        this.coalescedCounter = Counter.builder("auth.lookup.coalesced")
+                .description("User lookups that joined an identical in-flight lookup").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("auth.lookup.batch.size")
+                .description("Keys loaded by one batched user lookup").register(meterRegistry);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (!enabled || email == null || mustReadOwnWrites()) {
+            return authRepository.findByEmail(email);
+        }
+        return byEmail.get(email);
+    }
+
+    public Optional<User> findById(Long id) {
+        if (!enabled || id == null || mustReadOwnWrites()) {
+            return authRepository.findById(id);
+        }
+        return byId.get(id);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static boolean mustReadOwnWrites() {
+        return ReplicaRoutingDataSource.isPinnedToPrimary()
+                || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private ShardRouter router() {
+        return shardRouter.getIfAvailable();
+    }
+
+    /**
+     * Keyed by the email as requested: a case-insensitive collation can return a row whose stored email
+     * differs in case from the one that was asked for.
+     */
+    private static Map<String, User> byRequestedEmail(List<String> emails, List<User> users) {
+        Map<String, User> found = index(users, User::getEmail);
+        for (String email : emails) {
+            if (!found.containsKey(email)) {
+                users.stream()
+                        .filter(user -> user.getEmail().equalsIgnoreCase(email))
+                        .findFirst()
+                        .ifPresent(user -> found.put(email, user));
+            }
+        }
+        return found;
+    }
+
+    private static <K> Map<K, User> index(Iterable<User> users, Function<User, K> key) {
+        Map<K, User> indexed = new HashMap<>();
+        for (User user : users) {
+            indexed.putIfAbsent(key.apply(user), user);
+        }
+        return indexed;
+    }
+
+    private final class Batcher<K> {
+
+        private final String name;
+        private final Function<List<K>, Map<K, User>> loader;
+        private final ToIntFunction<K> shardOf;
+        private final Map<K, CompletableFuture<Optional<User>>> inFlight = new ConcurrentHashMap<>();
+
+        private List<K> pending = new ArrayList<>();
+        private long generation;
+
+        Batcher(String name, Function<List<K>, Map<K, User>> loader, ToIntFunction<K> shardOf) {
+            this.name = name;
+            this.loader = loader;
+            this.shardOf = shardOf;
+        }
+
+        Optional<User> get(K key) {
+            CompletableFuture<Optional<User>> created = new CompletableFuture<>();
+            CompletableFuture<Optional<User>> existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                coalescedCounter.increment();
+                return await(existing);
+            }
+            enqueue(key);
+            return await(created);
+        }
+
+        private void enqueue(K key) {
+            List<K> full = null;
+            long windowOf = -1;
+            synchronized (this) {
+                pending.add(key);
+                if (pending.size() >= maxBatchSize) {
+                    full = pending;
+                    pending = new ArrayList<>();
+                    generation++;
+                } else if (pending.size() == 1) {
+                    windowOf = generation;
+                }
+            }
+            if (full != null) {
+                List<K> batch = full;
+                executor.execute(() -> load(batch));
+            } else if (windowOf >= 0) {
+                long batchGeneration = windowOf;
+                executor.schedule(() -> flush(batchGeneration), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void flush(long batchGeneration) {
+            List<K> batch;
+            synchronized (this) {
+                // The batch already left because it filled up before its window ended
+                if (generation != batchGeneration || pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                generation++;
+            }
+            load(batch);
+        }
+
+        private void load(List<K> keys) {
+            batchSize.record(keys.size());
+            Map<Integer, List<K>> byShard = new TreeMap<>();
+            for (K key : keys) {
+                byShard.computeIfAbsent(shardOf.applyAsInt(key), shard -> new ArrayList<>()).add(key);
+            }
+
+            // One query per shard: the repository interceptor routes a collection whose keys share a shard
+            byShard.values().forEach(shardKeys -> {
+                try {
+                    Map<K, User> found = readOnlyTransaction.execute(status -> loader.apply(shardKeys));
+                    for (K key : shardKeys) {
+                        complete(key, Optional.ofNullable(found == null ? null : found.get(key)), null);
+                    }
+                } catch (Throwable e) {
+                    // Errors too: a future left in inFlight would make every later lookup of its key time out
+                    shardKeys.forEach(key -> complete(key, null, e));
+                }
+            });
+        }
+
+        private void complete(K key, Optional<User> user, Throwable failure) {
+            // Removed first: a lookup starting after this point must not get a result loaded before it
+            CompletableFuture<Optional<User>> future = inFlight.remove(key);
+            if (future == null) {
+                return;
+            }
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(user);
+            }
+        }
+
+        private Optional<User> await(CompletableFuture<Optional<User>> future) {
+            try {
+                return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (TimeoutException e) {
+                throw new QueryTimeoutException("User lookup by " + name + " timed out after " + timeoutMs + " ms", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new QueryTimeoutException("Interrupted while waiting for user lookup by " + name, e);
+            }
+        }
+    }
+}
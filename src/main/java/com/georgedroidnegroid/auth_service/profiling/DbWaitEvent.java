@@ -0,0 +1,21 @@
+package com.georgedroidnegroid.auth_service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("auth.DbWait")
+@Label("Database Connection Wait")
+@Category({"Auth Service", "Database"})
+@Description("Time a request thread waited for a pooled connection")
+@StackTrace(false)
+public class DbWaitEvent extends jdk.jfr.Event {
+
+    @Label("Data Source")
+    public String dataSource;
+
+    @Label("Acquired")
+    public boolean acquired;
+}
@@ -0,0 +1,57 @@
+package com.georgedroidnegroid.auth_service.profiling;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Emits a {@link DbWaitEvent} for every connection taken from the target pool. Without a running
+ * JFR recording the event is disabled and the JIT removes it, leaving a plain delegating call.
+ */
+public class DbWaitRecordingDataSource extends DelegatingDataSource {
+
+    public DbWaitRecordingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DbWaitEvent event = new DbWaitEvent();
+        event.begin();
+        Connection connection = null;
+        try {
+            connection = super.getConnection();
+            return connection;
+        } finally {
+            commit(event, connection != null);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DbWaitEvent event = new DbWaitEvent();
+        event.begin();
+        Connection connection = null;
+        try {
+            connection = super.getConnection(username, password);
+            return connection;
+        } finally {
+            commit(event, connection != null);
+        }
+    }
+
+    private void commit(DbWaitEvent event, boolean acquired) {
+        event.end();
+        if (event.shouldCommit()) {
+            DataSource target = obtainTargetDataSource();
+            event.dataSource = target instanceof HikariDataSource pool
+                    ? pool.getPoolName()
+                    : target.getClass().getSimpleName();
+            event.acquired = acquired;
+            event.commit();
+        }
+    }
+}
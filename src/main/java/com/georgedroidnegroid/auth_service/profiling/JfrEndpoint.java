@@ -0,0 +1,190 @@
+package com.georgedroidnegroid.auth_service.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * On-demand JDK Flight Recorder recordings of a running instance, restricted to the OPS role.
+ * <ul>
+ *     <li>{@code POST /actuator/jfr} starts a recording, bounded by {@code auth.jfr.max-duration-seconds}</li>
+ *     <li>{@code GET /actuator/jfr} shows the current recording</li>
+ *     <li>{@code GET /actuator/jfr/{name}} streams the .jfr file; while still running, a snapshot of the data so far</li>
+ *     <li>{@code POST /actuator/jfr/{name}} stops the recording early</li>
+ *     <li>{@code DELETE /actuator/jfr} stops and discards it</li>
+ * </ul>
+ * The auth-path events ({@code auth.*}) are only enabled while a recording runs.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final int STATUS_CONFLICT = 409;
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final List<Class<? extends jdk.jfr.Event>> AUTH_EVENTS = List.of(
+            TokenVerifyEvent.class, UserLookupEvent.class, PasswordHashEvent.class, DbWaitEvent.class);
+
+    private final Path directory;
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final Duration eventThreshold;
+
+    private Recording recording;
+    private Path file;
+    private Path snapshot;
+
+    public JfrEndpoint(@Value("${auth.jfr.directory:${java.io.tmpdir}}") String directory,
+                       @Value("${auth.jfr.default-duration-seconds:60}") long defaultDurationSeconds,
+                       @Value("${auth.jfr.max-duration-seconds:300}") long maxDurationSeconds,
+                       @Value("${auth.jfr.event-threshold-ms:0}") long eventThresholdMs) {
+        this.directory = Path.of(directory);
+        this.defaultDuration = Duration.ofSeconds(defaultDurationSeconds);
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.eventThreshold = Duration.ofMillis(eventThresholdMs);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe();
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds,
+                                                                     @Nullable String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(), STATUS_CONFLICT);
+        }
+        String settingsName = settings == null ? "profile" : settings;
+        if (!SETTINGS.contains(settingsName)) {
+            return new WebEndpointResponse<>(Map.of("error", "settings must be one of " + SETTINGS),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Duration duration = durationSeconds == null || durationSeconds <= 0
+                ? defaultDuration
+                : Duration.ofSeconds(Math.min(durationSeconds, maxDuration.toSeconds()));
+
+        discard();
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settingsName));
+            for (Class<? extends jdk.jfr.Event> event : AUTH_EVENTS) {
+                started.enable(event).withThreshold(eventThreshold);
+            }
+            Files.createDirectories(directory);
+            file = Files.createTempFile(directory, "auth-service-", ".jfr");
+            started.setName(file.getFileName().toString().replace(".jfr", ""));
+            started.setToDisk(true);
+            started.setDestination(file);
+            started.setDuration(duration);
+            started.start();
+            recording = started;
+        } catch (IOException | ParseException e) {
+            discard();
+            throw new IllegalStateException("JFR recording could not be started", e);
+        }
+
+        log.warn("JFR recording {} started for {} s with '{}' settings", recording.getName(),
+                duration.toSeconds(), settingsName);
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector String name) {
+        if (recording == null || !recording.getName().equals(name)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+        }
+        try {
+            if (snapshot == null) {
+                snapshot = Files.createTempFile(directory, "auth-service-snapshot-", ".jfr");
+            }
+            recording.dump(snapshot);
+        } catch (IOException e) {
+            throw new IllegalStateException("JFR recording could not be dumped", e);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(snapshot), WebEndpointResponse.STATUS_OK);
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> stop(@Selector String name) {
+        if (recording == null || !recording.getName().equals(name)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            // Stopping writes the recording to its destination
+            recording.stop();
+        }
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Void> delete() {
+        discard();
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    @PreDestroy
+    synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        deleteQuietly(file);
+        deleteQuietly(snapshot);
+        file = null;
+        snapshot = null;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete JFR recording {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        if (recording == null) {
+            description.put("state", "NONE");
+            return description;
+        }
+        description.put("name", recording.getName());
+        description.put("state", recording.getState().name());
+        Instant startTime = recording.getStartTime();
+        if (startTime != null) {
+            description.put("startTime", startTime.toString());
+        }
+        description.put("durationSeconds", recording.getDuration() == null ? null : recording.getDuration().toSeconds());
+        description.put("sizeBytes", recording.getSize());
+        return description;
+    }
+}
@@ -0,0 +1,22 @@
+package com.georgedroidnegroid.auth_service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("auth.PasswordHash")
+@Label("Password Hash")
+@Category({"Auth Service", "Authentication"})
+@Description("BCrypt hashing of a new password or verification of a login password")
+@StackTrace(false)
+public class PasswordHashEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("encode or matches")
+    public String operation;
+
+    @Label("Matched")
+    public boolean matched;
+}
@@ -0,0 +1,18 @@
+package com.georgedroidnegroid.auth_service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("auth.TokenVerify")
+@Label("Token Verify")
+@Category({"Auth Service", "Authentication"})
+@Description("JWT signature and claims verification")
+@StackTrace(false)
+public class TokenVerifyEvent extends jdk.jfr.Event {
+
+    @Label("Valid")
+    public boolean valid;
+}
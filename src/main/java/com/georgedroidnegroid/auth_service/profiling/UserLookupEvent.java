@@ -0,0 +1,22 @@
+package com.georgedroidnegroid.auth_service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("auth.UserLookup")
+@Label("User Lookup")
+@Category({"Auth Service", "Database"})
+@Description("Lookup of a user by email, including a restore from the archive")
+@StackTrace(false)
+public class UserLookupEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    @Description("login, register or token")
+    public String source;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -2,12 +2,40 @@ package com.georgedroidnegroid.auth_service.repository;
 
 import com.georgedroidnegroid.auth_service.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AuthRepository extends JpaRepository<User, Integer> {
+public interface AuthRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    List<User> findAllByEmailIn(Collection<String> emails);
+
+    @Query(value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM auth_info_archive WHERE email = :email) "
+            + "THEN TRUE ELSE FALSE END", nativeQuery = true)
+    boolean existsArchivedByEmail(@Param("email") String email);
+
+    // Serializes concurrent restores of the same account; a waiter finds no row once the first one commits
+    @Query(value = "SELECT id FROM auth_info_archive WHERE email = :email FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockArchivedByEmail(@Param("email") String email);
+
+    // Both statements run in the caller's transaction, so a row is never in both tables or in neither
+    @Modifying
+    @Query(value = "INSERT INTO auth_info (id, email, password_hash, is_active, created_at, updated_at, last_login_at) "
+            + "SELECT id, email, password_hash, is_active, created_at, updated_at, last_login_at "
+            + "FROM auth_info_archive WHERE email = :email", nativeQuery = true)
+    int restoreArchivedByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query(value = "DELETE FROM auth_info_archive WHERE email = :email", nativeQuery = true)
+    int deleteArchivedByEmail(@Param("email") String email);
 }
@@ -1,8 +1,20 @@
 package com.georgedroidnegroid.auth_service.service;
 
+import com.georgedroidnegroid.auth_service.audit.AuditEventType;
+import com.georgedroidnegroid.auth_service.audit.AuditLog;
+import com.georgedroidnegroid.auth_service.bloom.RegisteredEmailFilter;
+import com.georgedroidnegroid.auth_service.breach.BreachedPasswordChecker;
+import com.georgedroidnegroid.auth_service.config.ReplicaRoutingDataSource;
+import com.georgedroidnegroid.auth_service.entity.OutboxEventType;
 import com.georgedroidnegroid.auth_service.entity.User;
+import com.georgedroidnegroid.auth_service.lifecycle.LastLoginRecorder;
+import com.georgedroidnegroid.auth_service.lookup.UserLookupCoalescer;
+import com.georgedroidnegroid.auth_service.profiling.PasswordHashEvent;
+import com.georgedroidnegroid.auth_service.profiling.UserLookupEvent;
 import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.utils.exeption.UserNotCreatedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,11 +28,26 @@ import java.util.Optional;
 public class AuthService {
     private final AuthRepository authRepository;
     private final PasswordEncoder passwordEncoder;
+    private final OutboxService outboxService;
+    private final AuditLog auditLog;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final BreachedPasswordChecker breachedPasswordChecker;
+    private final UserLookupCoalescer userLookupCoalescer;
 
     @Autowired
-    public AuthService(AuthRepository authRepository, PasswordEncoder passwordEncoder) {
+    public AuthService(AuthRepository authRepository, PasswordEncoder passwordEncoder,
+                       OutboxService outboxService, AuditLog auditLog,
+                       RegisteredEmailFilter registeredEmailFilter, LastLoginRecorder lastLoginRecorder,
+                       BreachedPasswordChecker breachedPasswordChecker, UserLookupCoalescer userLookupCoalescer) {
         this.authRepository = authRepository;
         this.passwordEncoder = passwordEncoder;
+        this.outboxService = outboxService;
+        this.auditLog = auditLog;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.breachedPasswordChecker = breachedPasswordChecker;
+        this.userLookupCoalescer = userLookupCoalescer;
     }
 
     @Transactional
@@ -30,34 +57,126 @@ public class AuthService {
 
     @Transactional
     public void delete(User user) {
+        // Repository call first: it binds the user's shard, which the outbox insert then shares
         authRepository.delete(user);
+        outboxService.record(OutboxEventType.USER_DELETED, user);
     }
 
     @Transactional
     public void registerUser(String email, String password) {
+        // An in-memory lookup: reject before the existence query and the BCrypt encode
+        if (breachedPasswordChecker.isBreached(password)) {
+            throw new UserNotCreatedException("This password has appeared in a data breach, choose a different one");
+        }
+        // Never skipped on a filter miss: the filter can lag registrations on other instances
+        if (isTaken(email)) {
+            throw new UserNotCreatedException("User with this email already exists");
+        }
+
         User user = new User();
         user.setEmail(email);
-        user.setPasswordHash(passwordEncoder.encode(password));
-        save(user);
+        user.setPasswordHash(encodePassword(password));
+        try {
+            save(user);
+            // A concurrent registration of the same email fails here against the unique index, not at commit
+            authRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new UserNotCreatedException("User with this email already exists");
+        }
+        outboxService.record(OutboxEventType.USER_REGISTERED, user);
+        ReplicaRoutingDataSource.pinToPrimary();
     }
 
     @Transactional
     public User login(String email, String password) {
-        User user = authRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        Optional<User> found = registeredEmailFilter.isKnownUnregistered(email)
+                ? Optional.empty()
+                : lookupForLogin(email);
+        User user = found
+                .orElseThrow(() -> {
+                    auditLog.record(AuditEventType.LOGIN_FAILURE, email, null, "USER_NOT_FOUND");
+                    return new UsernameNotFoundException("User not found");
+                });
 
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        if (!matchesPassword(password, user.getPasswordHash())) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, email, user.getId(), "BAD_CREDENTIALS");
             throw new BadCredentialsException("Invalid password");
         }
 
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, email, user.getId(), null);
+        lastLoginRecorder.record(user.getId());
+        outboxService.record(OutboxEventType.USER_LOGGED_IN, user);
         return user;
     }
 
+    private boolean isTaken(String email) {
+        UserLookupEvent event = new UserLookupEvent();
+        event.source = "register";
+        event.begin();
+        try {
+            event.found = authRepository.existsByEmail(email) || authRepository.existsArchivedByEmail(email);
+            return event.found;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private Optional<User> lookupForLogin(String email) {
+        UserLookupEvent event = new UserLookupEvent();
+        event.source = "login";
+        event.begin();
+        try {
+            Optional<User> user = authRepository.findByEmail(email).or(() -> restoreArchived(email));
+            event.found = user.isPresent();
+            return user;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private String encodePassword(String password) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = "encode";
+        event.begin();
+        try {
+            return passwordEncoder.encode(password);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private boolean matchesPassword(String password, String hash) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = "matches";
+        event.begin();
+        try {
+            event.matched = passwordEncoder.matches(password, hash);
+            return event.matched;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Moves an account archived for inactivity back to {@code auth_info} within the login transaction.
+     */
+    private Optional<User> restoreArchived(String email) {
+        if (authRepository.lockArchivedByEmail(email).isEmpty()) {
+            // Either never archived, or a concurrent login restored it while we waited for the lock
+            return authRepository.findByEmail(email);
+        }
+        authRepository.restoreArchivedByEmail(email);
+        authRepository.deleteArchivedByEmail(email);
+        Optional<User> restored = authRepository.findByEmail(email);
+        restored.ifPresent(user -> auditLog.record(AuditEventType.ACCOUNT_RESTORED, email, user.getId(), null));
+        return restored;
+    }
+
     public Optional<User> findByEmail(String email) {
-        return authRepository.findByEmail(email);
+        return userLookupCoalescer.findByEmail(email);
     }
 
-    public Optional<User> findById(Integer organizerId) {
-        return authRepository.findById(organizerId);
+    public Optional<User> findById(Long organizerId) {
+        return userLookupCoalescer.findById(organizerId);
     }
 }
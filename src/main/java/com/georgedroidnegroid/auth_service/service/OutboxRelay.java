@@ -0,0 +1,189 @@
+package com.georgedroidnegroid.auth_service.service;
+
+import com.georgedroidnegroid.auth_service.entity.OutboxEvent;
+import com.georgedroidnegroid.auth_service.repository.OutboxEventRepository;
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import com.georgedroidnegroid.auth_service.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_event} to Kafka in batches, on every shard when sharding is enabled (the events are
+ * written on the shard of their user). A batch is claimed for {@code auth.outbox.relay.claim-timeout-ms} in a
+ * short transaction, published without holding a transaction, and deleted only after every record in it is
+ * acknowledged, so delivery is at-least-once; consumers de-duplicate by the record key (user id) and type.
+ * A batch that fails is released for the next run; if even that fails, its claim expires.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final String topic;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Duration claimTimeout;
+
+    private final Counter relayedCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       ObjectProvider<ShardRouter> shardRouter,
+                       MeterRegistry meterRegistry,
+                       @Value("${auth.outbox.topic:auth.user-events}") String topic,
+                       @Value("${auth.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${auth.outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+                       @Value("${auth.outbox.relay.claim-timeout-ms:60000}") long claimTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        // A claim must outlive the wait for the acknowledgements, or another relay would publish the batch again
+        this.claimTimeout = Duration.ofMillis(Math.max(claimTimeoutMs, 2 * sendTimeoutMs));
+
+        this.relayedCounter = Counter.builder("auth.outbox.relayed")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("auth.outbox.relay.failures")
+                .description("Outbox batches that failed and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("auth.outbox.relay.batch")
+                .description("Time to publish and delete one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("auth.outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest event still waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.relay.interval-ms:500}")
+    public void relay() {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            lagMillis.set(relayShard());
+            return;
+        }
+        long lag = 0;
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            ShardRoutingDataSource.use(shard);
+            try {
+                lag = Math.max(lag, relayShard());
+            } finally {
+                ShardRoutingDataSource.clear();
+            }
+        }
+        lagMillis.set(lag);
+    }
+
+    /**
+     * @return the age of the oldest event left on the current shard, in milliseconds
+     */
+    private long relayShard() {
+        try {
+            int relayed;
+            do {
+                long start = System.nanoTime();
+                relayed = relayBatch();
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+        try {
+            Instant oldest = outboxEventRepository.findOldestCreatedAt();
+            return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis();
+        } catch (RuntimeException e) {
+            log.warn("Outbox lag could not be read: {}", e.getMessage());
+            return lagMillis.get();
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+
+        try {
+            List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                sends.add(kafkaTemplate.send(topic, String.valueOf(event.getAggregateId()), event.getPayload()));
+            }
+            // Hand the accumulated batch to the broker now instead of waiting for linger.ms
+            kafkaTemplate.flush();
+            awaitAcks(sends);
+        } catch (RuntimeException e) {
+            releaseClaims(ids);
+            throw e;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+        relayedCounter.increment(batch.size());
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> claimed = outboxEventRepository.findBatchForRelay(now, PageRequest.of(0, batchSize));
+            // Written at commit; the row locks are released right after
+            claimed.forEach(event -> event.setClaimedUntil(now.plus(claimTimeout)));
+            return claimed;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    private void releaseClaims(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.releaseClaims(ids));
+        } catch (RuntimeException e) {
+            log.warn("Outbox claims could not be released, they expire in {} s: {}",
+                    claimTimeout.toSeconds(), e.getMessage());
+        }
+    }
+
+    private void awaitAcks(List<CompletableFuture<SendResult<String, String>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Outbox batch was not acknowledged by Kafka", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.georgedroidnegroid.auth_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgedroidnegroid.auth_service.entity.OutboxEvent;
+import com.georgedroidnegroid.auth_service.entity.OutboxEventType;
+import com.georgedroidnegroid.auth_service.entity.User;
+import com.georgedroidnegroid.auth_service.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         ObjectMapper objectMapper,
+                         @Value("${auth.outbox.enabled:false}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stores the event in the caller's transaction, so it is published if and only if the user change commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType eventType, User user) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", eventType.name());
+        payload.put("userId", user.getId());
+        payload.put("email", user.getEmail());
+        payload.put("occurredAt", Instant.now().toString());
+
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateId(user.getId())
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+    }
+}
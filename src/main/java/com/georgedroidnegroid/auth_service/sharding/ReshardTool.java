@@ -0,0 +1,172 @@
+package com.georgedroidnegroid.auth_service.sharding;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Offline resharding of {@code auth_info} and {@code auth_info_archive}: run with the service stopped.
+ * <pre>
+ * java -cp auth-service.jar -Dloader.main=com.georgedroidnegroid.auth_service.sharding.ReshardTool \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      --from jdbc:postgresql://a/auth,jdbc:postgresql://b/auth \
+ *      --to jdbc:postgresql://a/auth,jdbc:postgresql://b/auth,jdbc:postgresql://c/auth \
+ *      --user postgres --password secret [--batch 1000]
+ * </pre>
+ * Every row whose bucket maps to a different shard under the new layout is copied to its new shard
+ * and then deleted from the old one, batch by batch, so an interrupted run can simply be restarted.
+ * Archived accounts are moved too, since they are restored on the shard their email maps to.
+ * Both tables must already exist on every target shard.
+ */
+public final class ReshardTool {
+
+    private static final List<String> TABLES = List.of("auth_info", "auth_info_archive");
+
+    private ReshardTool() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        List<String> from = Arrays.asList(option(args, "--from", null).split(","));
+        List<String> to = Arrays.asList(option(args, "--to", null).split(","));
+        String user = option(args, "--user", "postgres");
+        String password = option(args, "--password", "");
+        int batchSize = Integer.parseInt(option(args, "--batch", "1000"));
+
+        ShardRouter target = new ShardRouter(to.size());
+        long moved = 0;
+
+        for (String table : TABLES) {
+            for (String sourceUrl : from) {
+                moved += reshard(table, sourceUrl, to, target, user, password, batchSize);
+            }
+        }
+        System.out.printf("Resharding finished, %d rows moved%n", moved);
+    }
+
+    private static long reshard(String table, String sourceUrl, List<String> targets, ShardRouter router,
+                                String user, String password, int batchSize) throws SQLException {
+        long moved = 0;
+
+        try (Connection source = DriverManager.getConnection(sourceUrl, user, password);
+             Connection sourceWriter = DriverManager.getConnection(sourceUrl, user, password)) {
+            source.setAutoCommit(false);
+            sourceWriter.setAutoCommit(false);
+
+            Connection[] targetConnections = new Connection[targets.size()];
+            try (Statement scan = source.createStatement()) {
+                scan.setFetchSize(batchSize);
+                ResultSet rows = scan.executeQuery("SELECT * FROM " + table);
+                ResultSetMetaData meta = rows.getMetaData();
+                int columns = meta.getColumnCount();
+                int idIndex = rows.findColumn("id") - 1;
+                String insert = insertStatement(table, meta);
+
+                List<List<Object[]>> pending = new ArrayList<>();
+                for (int i = 0; i < targets.size(); i++) {
+                    pending.add(new ArrayList<>());
+                }
+
+                while (rows.next()) {
+                    int shard = router.shardForEmail(rows.getString("email"));
+                    if (targets.get(shard).equals(sourceUrl)) {
+                        continue;
+                    }
+                    Object[] row = new Object[columns];
+                    for (int c = 0; c < columns; c++) {
+                        row[c] = rows.getObject(c + 1);
+                    }
+                    pending.get(shard).add(row);
+                    if (pending.get(shard).size() >= batchSize) {
+                        moved += flush(table, pending.get(shard), shard, idIndex, targets, targetConnections,
+                                sourceWriter, insert, user, password);
+                    }
+                }
+                for (int shard = 0; shard < targets.size(); shard++) {
+                    moved += flush(table, pending.get(shard), shard, idIndex, targets, targetConnections,
+                            sourceWriter, insert, user, password);
+                }
+            } finally {
+                for (Connection connection : targetConnections) {
+                    if (connection != null) {
+                        connection.close();
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%s %s: %d rows moved%n", sourceUrl, table, moved);
+        return moved;
+    }
+
+    private static int flush(String table, List<Object[]> rows, int shard, int idIndex, List<String> targets,
+                             Connection[] targetConnections,
+                             Connection sourceWriter, String insert, String user, String password)
+            throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        if (targetConnections[shard] == null) {
+            targetConnections[shard] = DriverManager.getConnection(targets.get(shard), user, password);
+            targetConnections[shard].setAutoCommit(false);
+        }
+        Connection target = targetConnections[shard];
+
+        try (PreparedStatement copy = target.prepareStatement(insert)) {
+            for (Object[] row : rows) {
+                for (int c = 0; c < row.length; c++) {
+                    copy.setObject(c + 1, row[c]);
+                }
+                copy.addBatch();
+            }
+            copy.executeBatch();
+        }
+        target.commit();
+
+        // Deleted only after the copy is committed: a crash in between leaves a duplicate that the next run skips.
+        try (PreparedStatement delete = sourceWriter.prepareStatement("DELETE FROM " + table + " WHERE id = ?")) {
+            for (Object[] row : rows) {
+                delete.setObject(1, row[idIndex]);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+        }
+        sourceWriter.commit();
+
+        int count = rows.size();
+        rows.clear();
+        return count;
+    }
+
+    private static String insertStatement(String table, ResultSetMetaData meta) throws SQLException {
+        StringBuilder names = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        for (int c = 1; c <= meta.getColumnCount(); c++) {
+            if (c > 1) {
+                names.append(", ");
+                values.append(", ");
+            }
+            names.append(meta.getColumnName(c));
+            values.append('?');
+        }
+        return "INSERT INTO " + table + " (" + names + ") VALUES (" + values + ") ON CONFLICT (id) DO NOTHING";
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        if (defaultValue == null) {
+            throw new IllegalArgumentException("Missing required option " + name);
+        }
+        return defaultValue;
+    }
+}
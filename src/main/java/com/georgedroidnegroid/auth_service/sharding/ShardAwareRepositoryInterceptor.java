@@ -0,0 +1,97 @@
+package com.georgedroidnegroid.auth_service.sharding;
+
+import com.georgedroidnegroid.auth_service.entity.User;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Selects the shard for every {@code AuthRepository} call from its first argument (email, id or user, or a
+ * collection of them that all belong to the same shard).
+ * Inside a transaction the shard stays selected until completion, calls without arguments ({@code flush()})
+ * run on it, and touching a second shard fails instead of silently reading or writing the wrong database.
+ */
+public class ShardAwareRepositoryInterceptor implements MethodInterceptor {
+
+    private final ShardRouter shardRouter;
+
+    public ShardAwareRepositoryInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        Integer current = ShardRoutingDataSource.currentShard();
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+
+        // flush() and the like carry no key: they belong to the shard the transaction is already bound to
+        if (invocation.getArguments().length == 0 && current != null && inTransaction) {
+            return invocation.proceed();
+        }
+
+        int shard = resolveShard(invocation);
+
+        if (current != null && current != shard && inTransaction) {
+            throw new IllegalStateException(
+                    "Transaction already bound to shard " + current + ", cannot access shard " + shard);
+        }
+
+        ShardRoutingDataSource.use(shard);
+        if (current == null && inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ShardRoutingDataSource.clear();
+                }
+            });
+        }
+
+        try {
+            return invocation.proceed();
+        } finally {
+            if (!inTransaction) {
+                ShardRoutingDataSource.clear();
+            }
+        }
+    }
+
+    private int resolveShard(MethodInvocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        Object key = arguments.length > 0 ? arguments[0] : null;
+
+        if (key instanceof Iterable<?> keys && keys.iterator().hasNext()) {
+            Integer shard = null;
+            for (Object element : keys) {
+                int elementShard = shardFor(element, invocation);
+                if (shard != null && shard != elementShard) {
+                    throw new IllegalStateException("AuthRepository." + invocation.getMethod().getName()
+                            + " called with keys from shards " + shard + " and " + elementShard);
+                }
+                shard = elementShard;
+            }
+            return shard;
+        }
+        return shardFor(key, invocation);
+    }
+
+    private int shardFor(Object key, MethodInvocation invocation) {
+        if (key instanceof String email) {
+            return shardRouter.shardForEmail(email);
+        }
+        if (key instanceof Number id) {
+            return shardRouter.shardForId(id.longValue());
+        }
+        if (key instanceof User user) {
+            return user.getId() != 0
+                    ? shardRouter.shardForId(user.getId())
+                    : shardRouter.shardForEmail(user.getEmail());
+        }
+        throw new IllegalStateException(
+                "AuthRepository." + invocation.getMethod().getName() + " cannot be routed to a single shard");
+    }
+}
@@ -0,0 +1,28 @@
+package com.georgedroidnegroid.auth_service.sharding;
+
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds {@link ShardAwareRepositoryInterceptor} to the {@link AuthRepository} proxy.
+ */
+public class ShardAwareRepositoryPostProcessor implements BeanPostProcessor {
+
+    private final ShardAwareRepositoryInterceptor interceptor;
+
+    public ShardAwareRepositoryPostProcessor(ShardRouter shardRouter) {
+        this.interceptor = new ShardAwareRepositoryInterceptor(shardRouter);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                && AuthRepository.class.equals(factoryBean.getObjectType())) {
+            factoryBean.addRepositoryFactoryCustomizer(repositoryFactory ->
+                    repositoryFactory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(interceptor)));
+        }
+        return bean;
+    }
+}
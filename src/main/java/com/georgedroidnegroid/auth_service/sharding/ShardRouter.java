@@ -0,0 +1,47 @@
+package com.georgedroidnegroid.auth_service.sharding;
+
+import com.georgedroidnegroid.auth_service.utils.EmailNormalizer;
+
+/**
+ * Maps users to shards in O(1): email -> bucket -> shard, and id -> bucket -> shard.
+ * Buckets are fixed forever, so resharding only changes {@code bucket % shardCount}.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1 || shardCount > SnowflakeIdGenerator.BUCKETS) {
+            throw new IllegalArgumentException(
+                    "Shard count must be between 1 and " + SnowflakeIdGenerator.BUCKETS + ": " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    public static int bucketFor(String email) {
+        int h = EmailNormalizer.normalize(email).hashCode();
+        // murmur3 finalizer, String.hashCode alone clusters on common domains
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, SnowflakeIdGenerator.BUCKETS);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForEmail(String email) {
+        return shardForBucket(bucketFor(email));
+    }
+
+    public int shardForId(long id) {
+        return shardForBucket(SnowflakeIdGenerator.bucketOf(id));
+    }
+
+    public int shardForBucket(int bucket) {
+        return bucket % shardCount;
+    }
+}
@@ -0,0 +1,59 @@
+package com.georgedroidnegroid.auth_service.sharding;
+
+/**
+ * 64-bit time-ordered ids: 41 bits of milliseconds since 2025-01-01, 8 bits of email bucket,
+ * 6 bits of worker id and 8 bits of per-millisecond sequence.
+ * The bucket makes {@code findById} routable to a shard without a lookup table.
+ */
+public final class SnowflakeIdGenerator {
+
+    static final long EPOCH_MILLIS = 1735689600000L;
+
+    static final int SEQUENCE_BITS = 8;
+    static final int WORKER_BITS = 6;
+    static final int BUCKET_BITS = 8;
+
+    static final int WORKER_SHIFT = SEQUENCE_BITS;
+    static final int BUCKET_SHIFT = SEQUENCE_BITS + WORKER_BITS;
+    static final int TIMESTAMP_SHIFT = BUCKET_SHIFT + BUCKET_BITS;
+
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    static final long BUCKET_MASK = (1L << BUCKET_BITS) - 1;
+
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+    public static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+
+    private final long workerId;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public SnowflakeIdGenerator(int workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.workerId = workerId;
+    }
+
+    public synchronized long nextId(int bucket) {
+        long now = System.currentTimeMillis();
+
+        if (now <= lastMillis) {
+            // Same millisecond or the clock went backwards: keep counting from the last timestamp
+            // and borrow the next millisecond once the sequence wraps.
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            now = sequence == 0 ? lastMillis + 1 : lastMillis;
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+
+        return ((now - EPOCH_MILLIS) << TIMESTAMP_SHIFT)
+                | ((bucket & BUCKET_MASK) << BUCKET_SHIFT)
+                | (workerId << WORKER_SHIFT)
+                | sequence;
+    }
+
+    public static int bucketOf(long id) {
+        return (int) ((id >>> BUCKET_SHIFT) & BUCKET_MASK);
+    }
+}
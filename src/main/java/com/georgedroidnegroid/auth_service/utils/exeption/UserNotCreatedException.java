@@ -1,4 +1,11 @@
 package com.georgedroidnegroid.auth_service.utils.exeption;
 
 public class UserNotCreatedException extends RuntimeException{
+
+    public UserNotCreatedException() {
+    }
+
+    public UserNotCreatedException(String message) {
+        super(message);
+    }
 }
@@ -0,0 +1,195 @@
+package com.georgedroidnegroid.auth_service.warmup;
+
+import com.georgedroidnegroid.auth_service.bloom.RegisteredEmailFilter;
+import com.georgedroidnegroid.auth_service.config.JwtUtil;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the hot paths before the instance reports ready. Application runners complete before Spring Boot
+ * publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so {@code /actuator/health/readiness} stays
+ * OUT_OF_SERVICE until the connection pools are at {@code minimum-idle}, token signing and verification,
+ * the user lookup and BCrypt have been executed often enough to be compiled, and (optionally) the
+ * registered email filter is built. Every step is bounded by {@code auth.warmup.timeout-ms} and a failing
+ * step is logged and skipped: warm-up only ever delays readiness, it never prevents startup.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    // A syntactically valid address that can never be registered
+    private static final String PROBE_EMAIL = "warmup@warmup.invalid";
+    private static final String PROBE_PASSWORD = "warmup-password";
+
+    private final DataSource dataSource;
+    private final JwtUtil jwtUtil;
+    private final AuthRepository authRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final MeterRegistry meterRegistry;
+    private final int tokenIterations;
+    private final int lookupIterations;
+    private final int passwordIterations;
+    private final boolean awaitEmailFilter;
+    private final long timeoutNanos;
+
+    private long deadline;
+
+    public WarmupRunner(DataSource dataSource,
+                        JwtUtil jwtUtil,
+                        AuthRepository authRepository,
+                        PasswordEncoder passwordEncoder,
+                        RegisteredEmailFilter registeredEmailFilter,
+                        MeterRegistry meterRegistry,
+                        @Value("${auth.warmup.token-iterations:20000}") int tokenIterations,
+                        @Value("${auth.warmup.lookup-iterations:500}") int lookupIterations,
+                        @Value("${auth.warmup.password-iterations:20}") int passwordIterations,
+                        @Value("${auth.warmup.await-email-filter:true}") boolean awaitEmailFilter,
+                        @Value("${auth.warmup.timeout-ms:60000}") long timeoutMs) {
+        this.dataSource = dataSource;
+        this.jwtUtil = jwtUtil;
+        this.authRepository = authRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.meterRegistry = meterRegistry;
+        this.tokenIterations = tokenIterations;
+        this.lookupIterations = lookupIterations;
+        this.passwordIterations = passwordIterations;
+        this.awaitEmailFilter = awaitEmailFilter;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        deadline = start + timeoutNanos;
+
+        step("pool", this::fillPools);
+        step("token", this::exerciseTokens);
+        step("lookup", this::exerciseLookups);
+        step("password", this::exercisePasswordHashing);
+        if (awaitEmailFilter) {
+            step("email-filter", this::awaitEmailFilter);
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Warm-up finished in {} ms, instance is ready to accept traffic", elapsedMs);
+    }
+
+    private void step(String name, Runnable body) {
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } catch (RuntimeException e) {
+            log.warn("Warm-up step '{}' failed, continuing without it: {}", name, e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("auth.warmup.duration")
+                    .description("Time spent in each warm-up step before readiness")
+                    .tag("step", name)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Warm-up step '{}' took {} ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Hikari opens connections lazily and tops up to {@code minimum-idle} in the background; holding
+     * {@code minimum-idle} connections at once makes every pool open them now.
+     */
+    private void fillPools() {
+        for (HikariDataSource pool : pools(dataSource, new LinkedHashSet<>())) {
+            int target = Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize());
+            List<Connection> held = new ArrayList<>(target);
+            try {
+                for (int i = 0; i < target && !expired(); i++) {
+                    held.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Pool " + pool.getPoolName() + " could not be filled", e);
+            } finally {
+                held.forEach(WarmupRunner::closeQuietly);
+            }
+            log.info("Pool {} warmed up with {} connections", pool.getPoolName(), held.size());
+        }
+    }
+
+    private void exerciseTokens() {
+        for (int i = 0; i < tokenIterations && !expired(); i++) {
+            String token = jwtUtil.generateToken(PROBE_EMAIL, i);
+            jwtUtil.verify(token);
+        }
+    }
+
+    /**
+     * Goes to the repository directly, past the email filter, so Hibernate prepares and caches the query plan.
+     */
+    private void exerciseLookups() {
+        for (int i = 0; i < lookupIterations && !expired(); i++) {
+            authRepository.findByEmail(PROBE_EMAIL);
+        }
+    }
+
+    private void exercisePasswordHashing() {
+        String hash = passwordEncoder.encode(PROBE_PASSWORD);
+        for (int i = 0; i < passwordIterations && !expired(); i++) {
+            passwordEncoder.matches(PROBE_PASSWORD, hash);
+        }
+    }
+
+    private void awaitEmailFilter() {
+        // A disabled filter is never built and a failed build is not retried: only wait for one in progress
+        while (!registeredEmailFilter.isReady() && registeredEmailFilter.isBuilding() && !expired()) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean expired() {
+        return System.nanoTime() - deadline > 0;
+    }
+
+    private static Set<HikariDataSource> pools(DataSource dataSource, Set<HikariDataSource> found) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            found.add(hikari);
+        } else if (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            pools(delegating.getTargetDataSource(), found);
+        } else if (dataSource instanceof AbstractRoutingDataSource routing) {
+            routing.getResolvedDataSources().values().forEach(target -> pools(target, found));
+        }
+        return found;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not return warm-up connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.georgedroidnegroid.auth_service.breach;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachedPasswordIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void isBreached_ShouldFindEveryListedPasswordAcrossSortedRuns() throws IOException {
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            passwords.add("password-" + i);
+        }
+        passwords.add("пароль😀");
+        passwords.add("password-7");
+        Path index = build(passwords, 1_000);
+
+        try (BreachedPasswordIndex breached = BreachedPasswordIndex.open(index)) {
+            assertEquals(50_001, breached.size());
+            for (String password : passwords) {
+                assertTrue(breached.isBreached(password), password);
+            }
+            for (int i = 0; i < 50_000; i++) {
+                assertFalse(breached.isBreached("unlisted-" + i));
+            }
+        }
+    }
+
+    @Test
+    void isBreached_ShouldAcceptSha1LinesWithCounts() throws Exception {
+        byte[] sha1 = MessageDigest.getInstance("SHA-1").digest("hunter2".getBytes(StandardCharsets.UTF_8));
+        Path index = build(List.of(HexFormat.of().withUpperCase().formatHex(sha1) + ":17493"), 16);
+
+        try (BreachedPasswordIndex breached = BreachedPasswordIndex.open(index)) {
+            assertTrue(breached.isBreached("hunter2"));
+            assertFalse(breached.isBreached("hunter3"));
+        }
+    }
+
+    @Test
+    void isBreached_WithEmptyIndex_ShouldAcceptEveryPassword() throws IOException {
+        Path index = build(List.of(), 16);
+
+        try (BreachedPasswordIndex breached = BreachedPasswordIndex.open(index)) {
+            assertEquals(0, breached.size());
+            assertFalse(breached.isBreached("password"));
+        }
+    }
+
+    @Test
+    void open_WithForeignFile_ShouldThrow() throws IOException {
+        Path file = directory.resolve("passwords.txt");
+        Files.writeString(file, "not an index, just some text");
+
+        assertThrows(IOException.class, () -> BreachedPasswordIndex.open(file));
+    }
+
+    private Path build(List<String> lines, int runEntries) throws IOException {
+        Path input = directory.resolve("breached.txt");
+        Path output = directory.resolve("breached.idx");
+        Files.write(input, lines, StandardCharsets.UTF_8);
+        BreachedPasswordIndexBuilder.build(List.of(input), output, runEntries);
+        return output;
+    }
+}
@@ -0,0 +1,105 @@
+package com.georgedroidnegroid.auth_service.circuit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<CircuitBreaker.Transition> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker("test", 10, 4, 50, 100, 1000, 2, transitions::add, now::get);
+    }
+
+    @Test
+    void onFailure_ShouldOpenWhenFailureRateReachesThreshold() {
+        succeed();
+        fail();
+        succeed();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(List.of(new CircuitBreaker.Transition("test", CircuitBreaker.State.CLOSED, CircuitBreaker.State.OPEN)),
+                transitions);
+    }
+
+    @Test
+    void onSuccess_ShouldCountSlowCallsAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onSuccess(SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void tryAcquirePermission_ShouldCloseAfterSuccessfulTrialCalls() {
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_ShouldReopenFromHalfOpen() {
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void tryAcquirePermission_ShouldRejectWhileOpen() {
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void succeed() {
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess(FAST);
+    }
+
+    private void fail() {
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+    }
+}
@@ -0,0 +1,75 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuance: the previous auth0 builder path against {@link JwtTokenMinter}.
+ * Run {@link #main} from the test classpath; the GC profiler reports {@code gc.alloc.rate.norm},
+ * the bytes allocated per issued token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtIssuanceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret";
+    private static final String EMAIL = "benchmark.user@example.com";
+    private static final long USER_ID = 123_456_789_012L;
+
+    private JwtTokenMinter minter;
+
+    @Setup
+    public void setUp() {
+        minter = new JwtTokenMinter(SECRET, "User details", "springapp", Duration.ofMinutes(60));
+    }
+
+    @Benchmark
+    public String auth0Builder() {
+        Date expirationDate = Date.from(ZonedDateTime.now().plusMinutes(60).toInstant());
+
+        return JWT.create()
+                .withSubject("User details")
+                .withClaim("email", EMAIL)
+                .withClaim("user_id", USER_ID)
+                .withIssuedAt(new Date())
+                .withIssuer("springapp")
+                .withExpiresAt(expirationDate)
+                .sign(Algorithm.HMAC256(SECRET));
+    }
+
+    @Benchmark
+    public String minter() {
+        return minter.mint(EMAIL, USER_ID, System.currentTimeMillis());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtIssuanceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .threads(4)
+                .build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtTokenMinterTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final JwtTokenMinter minter = new JwtTokenMinter(SECRET, "User details", "springapp", Duration.ofMinutes(60));
+
+    @Test
+    void mintedTokenVerifiesWithTheSameClaimsAsTheBuilder() {
+        long now = System.currentTimeMillis();
+
+        DecodedJWT jwt = verify(minter.mint("user@example.com", 1_234_567_890_123L, now));
+
+        assertEquals("HS256", jwt.getAlgorithm());
+        assertEquals("JWT", jwt.getType());
+        assertEquals("User details", jwt.getSubject());
+        assertEquals("springapp", jwt.getIssuer());
+        assertEquals("user@example.com", jwt.getClaim("email").asString());
+        assertEquals(1_234_567_890_123L, jwt.getClaim("user_id").asLong());
+        assertEquals(Instant.ofEpochSecond(now / 1000), jwt.getIssuedAtAsInstant());
+        assertEquals(Instant.ofEpochSecond(now / 1000 + 3600), jwt.getExpiresAtAsInstant());
+    }
+
+    @Test
+    void escapesEmailsThatNeedJsonEscaping() {
+        String email = "\"quoted\\\"\u0001\u00fc\u20ac\ud83d\ude00@example.com";
+
+        for (int i = 0; i < 3; i++) {
+            DecodedJWT jwt = verify(minter.mint(email + i, i, System.currentTimeMillis()));
+            assertEquals(email + i, jwt.getClaim("email").asString());
+            assertEquals(i, jwt.getClaim("user_id").asLong());
+        }
+    }
+
+    @Test
+    void reusedBuffersDoNotLeakBetweenTokens() {
+        long now = System.currentTimeMillis();
+        minter.mint("a-much-longer-address-than-the-next-one@example.com", 1, now);
+
+        DecodedJWT jwt = verify(minter.mint("b@ex.io", 2, now));
+
+        assertEquals("b@ex.io", jwt.getClaim("email").asString());
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsRejected() {
+        String token = new JwtTokenMinter("other-secret", "User details", "springapp", Duration.ofMinutes(60))
+                .mint("user@example.com", 1, System.currentTimeMillis());
+
+        assertThrows(SignatureVerificationException.class, () -> verify(token));
+    }
+
+    private static DecodedJWT verify(String token) {
+        return JWT.require(Algorithm.HMAC256(SECRET))
+                .withSubject("User details")
+                .withIssuer("springapp")
+                .build()
+                .verify(token);
+    }
+}
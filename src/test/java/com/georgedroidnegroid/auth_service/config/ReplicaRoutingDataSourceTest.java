@@ -0,0 +1,107 @@
+package com.georgedroidnegroid.auth_service.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary", "primary");
+        DataSource replicaA = h2("routing_replica_a", "replica-a");
+        DataSource replicaB = h2("routing_replica_b", "replica-b");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replicaA, replicaB));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.clearPin();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldGoToReplicasRoundRobin() {
+        assertEquals("replica-a", readNode(readOnlyTx));
+        assertEquals("replica-b", readNode(readOnlyTx));
+        assertEquals("replica-a", readNode(readOnlyTx));
+    }
+
+    @Test
+    void writeTransaction_ShouldGoToPrimary() {
+        assertEquals("primary", readNode(writeTx));
+    }
+
+    @Test
+    void noTransaction_ShouldGoToPrimary() {
+        assertEquals("primary", jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    void pinnedToPrimary_ShouldReadFromPrimaryInsideReadOnlyTransaction() {
+        ReplicaRoutingDataSource.openPinScope();
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertEquals("primary", readNode(readOnlyTx));
+
+        ReplicaRoutingDataSource.clearPin();
+
+        assertEquals("replica-a", readNode(readOnlyTx));
+    }
+
+    @Test
+    void pinnedToPrimary_OutsidePinScope_ShouldEndWithTheTransaction() {
+        writeTx.executeWithoutResult(status -> {
+            ReplicaRoutingDataSource.pinToPrimary();
+            assertTrue(ReplicaRoutingDataSource.isPinnedToPrimary());
+        });
+
+        assertFalse(ReplicaRoutingDataSource.isPinnedToPrimary());
+        assertEquals("replica-a", readNode(readOnlyTx));
+    }
+
+    @Test
+    void pinnedToPrimary_OutsidePinScopeAndTransaction_ShouldNotPin() {
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertFalse(ReplicaRoutingDataSource.isPinnedToPrimary());
+    }
+
+    private String readNode(TransactionTemplate tx) {
+        return tx.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource h2(String db, String nodeName) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + db + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("drop table if exists node");
+        jdbc.execute("create table node (name varchar(32))");
+        jdbc.update("insert into node (name) values (?)", nodeName);
+        return dataSource;
+    }
+}
@@ -21,7 +21,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -66,7 +66,7 @@ class RegisterControllerTest {
 
         when(bindingResult.hasErrors()).thenReturn(false);
         when(authService.login(anyString(), anyString())).thenReturn(testUser);
-        when(jwtUtil.generateToken(anyString(), anyInt())).thenReturn(expectedToken);
+        when(jwtUtil.generateToken(anyString(), anyLong())).thenReturn(expectedToken);
 
         ResponseEntity<?> response = registerController.performLogin(userRegisterDto, bindingResult);
 
@@ -93,7 +93,7 @@ class RegisterControllerTest {
         assertEquals("Validation failed", body.get("error"));
 
         verify(authService, never()).login(anyString(), anyString());
-        verify(jwtUtil, never()).generateToken(anyString(), anyInt());
+        verify(jwtUtil, never()).generateToken(anyString(), anyLong());
     }
 
     @Test
@@ -111,7 +111,7 @@ class RegisterControllerTest {
         assertEquals("Invalid password", body.get("error"));
 
         verify(authService, times(1)).login(userRegisterDto.getEmail(), userRegisterDto.getPassword());
-        verify(jwtUtil, never()).generateToken(anyString(), anyInt());
+        verify(jwtUtil, never()).generateToken(anyString(), anyLong());
     }
 
     @Test
@@ -121,7 +121,7 @@ class RegisterControllerTest {
         when(bindingResult.hasErrors()).thenReturn(false);
         doNothing().when(authService).registerUser(anyString(), anyString());
         when(authService.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(jwtUtil.generateToken(anyString(), anyInt())).thenReturn(expectedToken);
+        when(jwtUtil.generateToken(anyString(), anyLong())).thenReturn(expectedToken);
 
         ResponseEntity<?> response = registerController.performRegister(userRegisterDto, bindingResult);
 
@@ -149,7 +149,7 @@ class RegisterControllerTest {
         assertEquals("Validation failed", body.get("error"));
 
         verify(authService, never()).registerUser(anyString(), anyString());
-        verify(jwtUtil, never()).generateToken(anyString(), anyInt());
+        verify(jwtUtil, never()).generateToken(anyString(), anyLong());
     }
 
     @Test
@@ -164,7 +164,7 @@ class RegisterControllerTest {
 
         verify(authService, times(1)).registerUser(userRegisterDto.getEmail(), userRegisterDto.getPassword());
         verify(authService, times(1)).findByEmail(userRegisterDto.getEmail());
-        verify(jwtUtil, never()).generateToken(anyString(), anyInt());
+        verify(jwtUtil, never()).generateToken(anyString(), anyLong());
     }
 
     @Test
@@ -10,12 +10,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -139,5 +141,12 @@ class AuthIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.jwtToken", notNullValue()));
     }
-}
 
+    @Test
+    void save_WithDuplicateEmail_ShouldBeRejectedByUniqueIndex() {
+        authRepository.saveAndFlush(User.builder().email(testUserDto.getEmail()).passwordHash("hash").build());
+
+        assertThrows(DataIntegrityViolationException.class, () -> authRepository.saveAndFlush(
+                User.builder().email(testUserDto.getEmail()).passwordHash("hash").build()));
+    }
+}
@@ -0,0 +1,201 @@
+package com.georgedroidnegroid.auth_service.integration;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgedroidnegroid.auth_service.circuit.CircuitBreaker;
+import com.georgedroidnegroid.auth_service.circuit.CircuitBreakerStateChangedEvent;
+import com.georgedroidnegroid.auth_service.dto.UserRegisterDto;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Fault injection against H2: the physical DataSource starts refusing connections, as Hikari does when
+ * Postgres is down, while the circuit breaker and the degraded JWT path are exercised through the web layer.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "auth.circuit-breaker.window-size=4",
+        "auth.circuit-breaker.minimum-calls=2",
+        "auth.circuit-breaker.open-duration-ms=600000",
+        "auth.degraded-mode.max-token-age-seconds=900",
+        "auth.audit.fallback.directory=target/audit-test",
+        // The database health indicator queries outside the repositories, so /actuator/health would touch the pool
+        "management.health.db.enabled=false"
+})
+class CircuitBreakerIntegrationTest {
+
+    private static final String SECRET = "TEST_SECRET_KEY_FOR_TESTING";
+
+    static final AtomicBoolean FAILING = new AtomicBoolean();
+    static final AtomicInteger CONNECTIONS_REQUESTED = new AtomicInteger();
+    static final List<CircuitBreakerStateChangedEvent> EVENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthRepository authRepository;
+
+    @Autowired
+    private CircuitBreaker repositoryCircuitBreaker;
+
+    private UserRegisterDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        userDto = UserRegisterDto.builder().email("breaker@example.com").password("password123").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        FAILING.set(false);
+        repositoryCircuitBreaker.reset();
+        authRepository.deleteAll();
+        EVENTS.clear();
+    }
+
+    @Test
+    void databaseOutage_ShouldOpenBreakerAndAcceptFreshTokensFromClaims() throws Exception {
+        String token = register();
+        FAILING.set(true);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/actuator/health").header("Authorization", "Bearer " + token))
+                    .andExpect(request().attribute("user_id", notNullValue()));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, repositoryCircuitBreaker.getState());
+        assertTrue(EVENTS.stream().anyMatch(event -> event.to() == CircuitBreaker.State.OPEN));
+
+        int connectionsBefore = CONNECTIONS_REQUESTED.get();
+        mockMvc.perform(get("/actuator/health").header("Authorization", "Bearer " + token))
+                .andExpect(request().attribute("user_id", notNullValue()));
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isServiceUnavailable());
+        assertEquals(connectionsBefore, CONNECTIONS_REQUESTED.get(), "open breaker must not touch the pool");
+    }
+
+    @Test
+    void databaseOutage_ShouldRejectTokensOlderThanMaxStalenessWithServiceUnavailable() throws Exception {
+        register();
+        FAILING.set(true);
+        Instant issuedAt = Instant.now().minus(Duration.ofHours(1));
+        String staleToken = JWT.create()
+                .withSubject("User details")
+                .withIssuer("springapp")
+                .withClaim("email", userDto.getEmail())
+                .withClaim("user_id", 1L)
+                .withIssuedAt(issuedAt)
+                .withExpiresAt(Instant.now().plus(Duration.ofMinutes(5)))
+                .sign(Algorithm.HMAC256(SECRET));
+
+        mockMvc.perform(get("/actuator/health").header("Authorization", "Bearer " + staleToken))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void databaseOutage_ShouldFailRegistrationWithServiceUnavailable() throws Exception {
+        FAILING.set(true);
+
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    private String register() throws Exception {
+        String body = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("jwtToken").asText();
+    }
+
+    @TestConfiguration
+    static class FaultInjectionConfig {
+
+        // Declared with the concrete type: Spring orders post-processors by what the factory method returns,
+        // and must see Ordered to apply this one before the lazy connection proxy is put around the pool
+        @Bean
+        static FaultInjectingPostProcessor faultInjectingDataSourcePostProcessor() {
+            return new FaultInjectingPostProcessor();
+        }
+
+        @EventListener
+        void onStateChange(CircuitBreakerStateChangedEvent event) {
+            EVENTS.add(event);
+        }
+    }
+
+    static class FaultInjectingPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                return new FaultInjectingDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            // Wrap the pool itself, inside the lazy connection proxy
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    static class FaultInjectingDataSource extends DelegatingDataSource {
+
+        FaultInjectingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            CONNECTIONS_REQUESTED.incrementAndGet();
+            if (FAILING.get()) {
+                throw new SQLTransientConnectionException("Injected fault: connection is not available");
+            }
+            return super.getConnection();
+        }
+    }
+}
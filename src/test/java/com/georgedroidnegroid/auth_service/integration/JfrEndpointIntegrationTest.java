@@ -0,0 +1,92 @@
+package com.georgedroidnegroid.auth_service.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgedroidnegroid.auth_service.dto.UserRegisterDto;
+import com.georgedroidnegroid.auth_service.profiling.JfrEndpoint;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "management.endpoints.web.exposure.include=health,jfr",
+        "auth.ops.emails=ops@example.com"
+})
+class JfrEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthRepository authRepository;
+
+    @Autowired
+    private JfrEndpoint jfrEndpoint;
+
+    @AfterEach
+    void tearDown() {
+        jfrEndpoint.delete();
+        authRepository.deleteAll();
+    }
+
+    @Test
+    void jfr_WithoutToken_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void jfr_WithRegularUserToken_ShouldBeForbidden() throws Exception {
+        String token = register("user@example.com");
+
+        mockMvc.perform(get("/actuator/jfr").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void jfr_WithOpsToken_ShouldStartAndDownloadRecording() throws Exception {
+        String token = register("ops@example.com");
+
+        String body = mockMvc.perform(post("/actuator/jfr")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"durationSeconds\":10,\"settings\":\"default\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andReturn().getResponse().getContentAsString();
+        String name = objectMapper.readTree(body).get("name").asText();
+
+        mockMvc.perform(get("/actuator/jfr/" + name).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM));
+
+        mockMvc.perform(post("/actuator/jfr/" + name).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value(not("RUNNING")));
+    }
+
+    private String register(String email) throws Exception {
+        UserRegisterDto dto = UserRegisterDto.builder().email(email).password("password123").build();
+        String body = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("jwtToken").asText();
+    }
+}
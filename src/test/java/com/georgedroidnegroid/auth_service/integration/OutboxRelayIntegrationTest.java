@@ -0,0 +1,82 @@
+package com.georgedroidnegroid.auth_service.integration;
+
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.repository.OutboxEventRepository;
+import com.georgedroidnegroid.auth_service.service.AuthService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@EmbeddedKafka(partitions = 1, topics = OutboxRelayIntegrationTest.TOPIC)
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "auth.outbox.enabled=true",
+        "auth.outbox.topic=" + OutboxRelayIntegrationTest.TOPIC,
+        "auth.outbox.relay.interval-ms=100"
+})
+class OutboxRelayIntegrationTest {
+
+    static final String TOPIC = "auth.user-events.test";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AuthRepository authRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @AfterEach
+    void tearDown() {
+        authRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void registerUser_ShouldPublishRegisteredEventAndDrainOutbox() throws InterruptedException {
+        authService.registerUser("outbox@example.com", "password123");
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test", "false", embeddedKafkaBroker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+
+            ConsumerRecord<String, String> record = KafkaTestUtils.getSingleRecord(consumer, TOPIC, Duration.ofSeconds(15));
+
+            long userId = authService.findByEmail("outbox@example.com").orElseThrow().getId();
+            assertEquals(String.valueOf(userId), record.key());
+            assertTrue(record.value().contains("\"type\":\"USER_REGISTERED\""));
+            assertTrue(record.value().contains("\"email\":\"outbox@example.com\""));
+        }
+
+        // The batch is deleted in its own transaction right after the broker acknowledged it
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, outboxEventRepository.count());
+    }
+}
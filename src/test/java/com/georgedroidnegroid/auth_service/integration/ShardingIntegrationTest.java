@@ -0,0 +1,115 @@
+package com.georgedroidnegroid.auth_service.integration;
+
+import com.georgedroidnegroid.auth_service.entity.User;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.service.AuthService;
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import com.georgedroidnegroid.auth_service.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 shards. Hibernate creates the schema on shard 0 only, so it is copied to shard 1 before each test.
+ */
+@SpringBootTest
+@EmbeddedKafka(partitions = 1, topics = ShardingIntegrationTest.TOPIC)
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "auth.sharding.enabled=true",
+        "auth.sharding.urls=jdbc:h2:mem:shard0;MODE=PostgreSQL;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard1;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "auth.outbox.enabled=true",
+        "auth.outbox.topic=" + ShardingIntegrationTest.TOPIC,
+        // Keep recorded events in the outbox so the test can see which shard they were written to
+        "auth.outbox.relay.interval-ms=3600000"
+})
+class ShardingIntegrationTest {
+
+    static final String TOPIC = "auth.user-events.sharding-test";
+
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AuthRepository authRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<String> schema = onShard(0, () -> jdbcTemplate.queryForList("SCRIPT NODATA", String.class));
+        onShard(1, () -> {
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE TABLE_NAME = 'AUTH_INFO'", Integer.class) == 0) {
+                schema.forEach(jdbcTemplate::execute);
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            onShard(shard, () -> {
+                jdbcTemplate.update("DELETE FROM outbox_event");
+                jdbcTemplate.update("DELETE FROM auth_info");
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void delete_WithUserOnNonDefaultShard_ShouldDeleteUserAndRecordEventOnItsShard() {
+        String email = emailOnShard(1);
+        authService.registerUser(email, PASSWORD);
+        User user = authRepository.findByEmail(email).orElseThrow();
+
+        authService.delete(user);
+
+        assertTrue(authRepository.findByEmail(email).isEmpty());
+        assertEquals(0, count(1, "SELECT COUNT(*) FROM auth_info"));
+        assertEquals(1, count(1, "SELECT COUNT(*) FROM outbox_event WHERE event_type = 'USER_DELETED'"));
+        assertEquals(0, count(0, "SELECT COUNT(*) FROM outbox_event"));
+    }
+
+    private String emailOnShard(int shard) {
+        for (int i = 0; ; i++) {
+            String email = "sharded" + i + "@example.com";
+            if (shardRouter.shardForEmail(email) == shard) {
+                return email;
+            }
+        }
+    }
+
+    private int count(int shard, String sql) {
+        Integer count = onShard(shard, () -> jdbcTemplate.queryForObject(sql, Integer.class));
+        return count == null ? 0 : count;
+    }
+
+    private static <T> T onShard(int shard, Supplier<T> action) {
+        ShardRoutingDataSource.use(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardRoutingDataSource.clear();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.georgedroidnegroid.auth_service.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgedroidnegroid.auth_service.dto.UserRegisterDto;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.authentication.logout.LogoutFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.savedrequest.RequestCacheAwareFilter;
+import org.springframework.security.web.servletapi.SecurityContextHolderAwareRequestFilter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+class StatelessSecurityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthRepository authRepository;
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @AfterEach
+    void tearDown() {
+        authRepository.deleteAll();
+    }
+
+    @Test
+    void bearerRequest_ShouldNotCreateSession() throws Exception {
+        UserRegisterDto dto = UserRegisterDto.builder().email("stateless@example.com").password("password123").build();
+        MvcResult registered = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(registered.getRequest().getSession(false));
+        String token = objectMapper.readTree(registered.getResponse().getContentAsString()).get("jwtToken").asText();
+
+        MvcResult authenticated = mockMvc.perform(get("/actuator/health").header("Authorization", "Bearer " + token))
+                .andExpect(request().attribute("user_id", notNullValue()))
+                .andExpect(header().doesNotExist("Set-Cookie"))
+                .andReturn();
+
+        assertNull(authenticated.getRequest().getSession(false));
+    }
+
+    @Test
+    void deniedRequest_ShouldNotSaveRequestInSession() throws Exception {
+        MvcResult denied = mockMvc.perform(get("/api/protected"))
+                .andExpect(status().isForbidden())
+                .andReturn();
+
+        assertNull(denied.getRequest().getSession(false));
+    }
+
+    @Test
+    void filterChain_ShouldNotContainSessionAndFormLoginFilters() {
+        List<Class<?>> filters = filterChainProxy.getFilters("/auth/login").stream()
+                .<Class<?>>map(Filter::getClass)
+                .toList();
+
+        assertFalse(filters.contains(RequestCacheAwareFilter.class));
+        assertFalse(filters.contains(SecurityContextHolderAwareRequestFilter.class));
+        assertFalse(filters.contains(LogoutFilter.class));
+        assertFalse(filters.contains(BasicAuthenticationFilter.class));
+    }
+}
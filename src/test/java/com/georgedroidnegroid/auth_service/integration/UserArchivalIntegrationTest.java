@@ -0,0 +1,107 @@
+package com.georgedroidnegroid.auth_service.integration;
+
+import com.georgedroidnegroid.auth_service.entity.User;
+import com.georgedroidnegroid.auth_service.lifecycle.UserArchivalJob;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.service.AuthService;
+import com.georgedroidnegroid.auth_service.utils.exeption.UserNotCreatedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "auth.archive.chunk-size=1",
+        "auth.archive.pause-ms=0",
+        "auth.archive.dormant-after-days=365"
+})
+class UserArchivalIntegrationTest {
+
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AuthRepository authRepository;
+
+    @Autowired
+    private UserArchivalJob userArchivalJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        authRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM auth_info_archive");
+    }
+
+    @Test
+    void archive_ShouldMoveOnlyDormantAccountsInChunks() {
+        registerDormant("dormant1@example.com");
+        registerDormant("dormant2@example.com");
+        registerDormant("dormant3@example.com");
+        authService.registerUser("active@example.com", PASSWORD);
+
+        int archived = userArchivalJob.archive();
+
+        assertEquals(3, archived);
+        assertEquals(1, authRepository.count());
+        assertTrue(authRepository.findByEmail("active@example.com").isPresent());
+        assertEquals(3, archivedCount());
+    }
+
+    @Test
+    void archive_WithoutRecordedLogin_ShouldKeepAccount() {
+        authService.registerUser("legacy@example.com", PASSWORD);
+        jdbcTemplate.update("UPDATE auth_info SET created_at = ?, last_login_at = NULL WHERE email = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(5)), "legacy@example.com");
+
+        int archived = userArchivalJob.archive();
+
+        assertEquals(0, archived);
+        assertTrue(authRepository.findByEmail("legacy@example.com").isPresent());
+    }
+
+    @Test
+    void login_WithArchivedAccount_ShouldRestoreItTransparently() {
+        registerDormant("dormant@example.com");
+        long id = authRepository.findByEmail("dormant@example.com").orElseThrow().getId();
+        userArchivalJob.archive();
+        assertTrue(authRepository.findByEmail("dormant@example.com").isEmpty());
+
+        User user = authService.login("dormant@example.com", PASSWORD);
+
+        assertEquals(id, user.getId());
+        assertTrue(authRepository.findByEmail("dormant@example.com").isPresent());
+        assertEquals(0, archivedCount());
+    }
+
+    @Test
+    void registerUser_WithArchivedEmail_ShouldThrowUserNotCreatedException() {
+        registerDormant("dormant@example.com");
+        userArchivalJob.archive();
+
+        assertThrows(UserNotCreatedException.class, () -> authService.registerUser("dormant@example.com", PASSWORD));
+    }
+
+    private void registerDormant(String email) {
+        authService.registerUser(email, PASSWORD);
+        jdbcTemplate.update("UPDATE auth_info SET last_login_at = ? WHERE email = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(2)), email);
+    }
+
+    private int archivedCount() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM auth_info_archive", Integer.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,71 @@
+package com.georgedroidnegroid.auth_service.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void tryAcquire_ShouldRejectOverTheLimitUntilOneIsReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void onSample_ShouldGrowLimitWhileLatencyIsStableUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5);
+
+        for (int i = 0; i < 500; i++) {
+            limiter.onSample(FAST, limiter.getLimit());
+        }
+
+        assertEquals(200, limiter.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldShrinkLimitWhenLatencyRisesButNotBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 4, 200, 1.5);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(FAST, limiter.getLimit());
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 30; i++) {
+            limiter.onSample(SLOW, limiter.getLimit());
+        }
+        int afterSpike = limiter.getLimit();
+        assertTrue(afterSpike < before / 4, "limit " + afterSpike + " should drop from " + before);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(SLOW * 10, limiter.getLimit());
+        }
+        assertTrue(limiter.getLimit() < afterSpike);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void onSample_ShouldIgnoreLatencyUnderLightLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 4, 200, 1.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(i % 2 == 0 ? FAST : SLOW, 1);
+        }
+
+        assertEquals(50, limiter.getLimit());
+    }
+}
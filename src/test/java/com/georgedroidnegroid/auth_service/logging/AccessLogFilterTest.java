@@ -0,0 +1,64 @@
+package com.georgedroidnegroid.auth_service.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogFilterTest {
+
+    private final AccessLogFilter filter = new AccessLogFilter(0.0, 1000);
+
+    @Test
+    void doFilter_ShouldPropagateIncomingTraceIdAndClearMdcAfterwards() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.addHeader(AccessLogFilter.TRACE_ID_HEADER, "abc123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> traceIdSeen = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                traceIdSeen.set(MDC.get(AccessLogFilter.TRACE_ID));
+                MDC.put(AccessLogFilter.USER_ID, "42");
+            }
+        }));
+
+        assertEquals("abc123", traceIdSeen.get());
+        assertEquals("abc123", response.getHeader(AccessLogFilter.TRACE_ID_HEADER));
+        assertNull(MDC.get(AccessLogFilter.TRACE_ID));
+        assertNull(MDC.get(AccessLogFilter.USER_ID));
+    }
+
+    @Test
+    void doFilter_ShouldGenerateTraceIdWhenHeaderIsMissing() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/auth/me"), response, new MockFilterChain());
+
+        String traceId = response.getHeader(AccessLogFilter.TRACE_ID_HEADER);
+        assertNotNull(traceId);
+        assertFalse(traceId.isBlank());
+    }
+
+    @Test
+    void doFilter_ShouldClearMdcWhenChainThrows() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, new MockHttpServletResponse(),
+                (req, resp) -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertNull(MDC.get(AccessLogFilter.TRACE_ID));
+    }
+}
@@ -0,0 +1,250 @@
+package com.georgedroidnegroid.auth_service.lookup;
+
+import com.georgedroidnegroid.auth_service.config.ReplicaRoutingDataSource;
+import com.georgedroidnegroid.auth_service.entity.User;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupCoalescerTest {
+
+    @Mock
+    private AuthRepository authRepository;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService callers;
+    private UserLookupCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newFixedThreadPool(64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+        ReplicaRoutingDataSource.clearPin();
+    }
+
+    @Test
+    void findByEmail_UnderThunderingHerd_ShouldLoadWithFewBatchedQueries() throws Exception {
+        coalescer = coalescer(true, 1000, 64, 2, 5000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(authRepository.findAllByEmailIn(anyCollection())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                return users(invocation.getArgument(0));
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        int lookups = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<User>>> results = new ArrayList<>();
+        for (int i = 0; i < lookups; i++) {
+            String email = "user" + (i % 10) + "@example.com";
+            results.add(callers.submit(() -> {
+                start.await();
+                return coalescer.findByEmail(email);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < lookups; i++) {
+            assertEquals("user" + (i % 10) + "@example.com", results.get(i).get(5, TimeUnit.SECONDS).orElseThrow().getEmail());
+        }
+        int queries = mockingDetails(authRepository).getInvocations().size();
+        assertTrue(queries <= 50, "expected far fewer than " + lookups + " queries, got " + queries);
+        assertTrue(maxRunning.get() <= 2, "batches may only hold as many connections as loader threads");
+        verify(authRepository, never()).findByEmail(anyString());
+        assertTrue(meterRegistry.get("auth.lookup.coalesced").counter().count() > 0);
+    }
+
+    @Test
+    void findByEmail_ShouldShareOneQueryForIdenticalConcurrentLookups() throws Exception {
+        coalescer = coalescer(true, 1000, 64, 4, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authRepository.findAllByEmailIn(anyCollection())).thenAnswer(invocation -> {
+            release.await();
+            return users(invocation.getArgument(0));
+        });
+
+        int lookups = 50;
+        List<Future<Optional<User>>> results = new ArrayList<>();
+        for (int i = 0; i < lookups; i++) {
+            results.add(callers.submit(() -> coalescer.findByEmail("same@example.com")));
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("auth.lookup.coalesced").counter().count() < lookups - 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<Optional<User>> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        verify(authRepository, times(1)).findAllByEmailIn(List.of("same@example.com"));
+    }
+
+    @Test
+    void findByEmail_ShouldSendFullBatchWithoutWaitingForTheWindow() throws Exception {
+        coalescer = coalescer(true, TimeUnit.SECONDS.toMicros(30), 4, 4, 5000);
+        when(authRepository.findAllByEmailIn(anyCollection()))
+                .thenAnswer(invocation -> users(invocation.getArgument(0)));
+
+        List<Future<Optional<User>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String email = "batch" + i + "@example.com";
+            results.add(callers.submit(() -> coalescer.findByEmail(email)));
+        }
+
+        for (Future<Optional<User>> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).isPresent());
+        }
+        verify(authRepository, times(2)).findAllByEmailIn(anyCollection());
+        assertEquals(8.0, meterRegistry.get("auth.lookup.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void findById_ShouldReturnEmptyForMissingUsers() {
+        coalescer = coalescer(true, 100, 64, 1, 5000);
+        User existing = User.builder().id(7).email("seven@example.com").build();
+        when(authRepository.findAllById(anyCollection())).thenReturn(List.of(existing));
+
+        assertSame(existing, coalescer.findById(7L).orElseThrow());
+        assertTrue(coalescer.findById(8L).isEmpty());
+    }
+
+    @Test
+    void findByEmail_ShouldPropagateLoaderFailureToEveryWaiter() throws Exception {
+        coalescer = coalescer(true, 1000, 64, 1, 5000);
+        when(authRepository.findAllByEmailIn(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        Future<Optional<User>> first = callers.submit(() -> coalescer.findByEmail("a@example.com"));
+        Future<Optional<User>> second = callers.submit(() -> coalescer.findByEmail("b@example.com"));
+
+        for (Future<Optional<User>> result : List.of(first, second)) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DataAccessResourceFailureException.class, thrown.getCause());
+        }
+    }
+
+    @Test
+    void findByEmail_WhenLoaderThrowsError_ShouldFailWaitersAndNotLeaveThemInFlight() throws Exception {
+        coalescer = coalescer(true, 100, 64, 1, 5000);
+        when(authRepository.findAllByEmailIn(anyCollection()))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(invocation -> users(invocation.getArgument(0)));
+
+        assertThrows(StackOverflowError.class, () -> coalescer.findByEmail("error@example.com"));
+
+        assertTrue(coalescer.findByEmail("error@example.com").isPresent());
+    }
+
+    @Test
+    void findByEmail_ShouldLoadBatchInReadOnlyTransaction() {
+        coalescer = coalescer(true, 100, 64, 1, 5000);
+        when(authRepository.findAllByEmailIn(anyCollection()))
+                .thenAnswer(invocation -> users(invocation.getArgument(0)));
+
+        assertTrue(coalescer.findByEmail("replica@example.com").isPresent());
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void findByEmail_ShouldTimeOutWhenTheBatchHangs() {
+        coalescer = coalescer(true, 100, 64, 1, 50);
+        CountDownLatch never = new CountDownLatch(1);
+        when(authRepository.findAllByEmailIn(anyCollection())).thenAnswer(invocation -> {
+            never.await();
+            return List.of();
+        });
+
+        assertThrows(QueryTimeoutException.class, () -> coalescer.findByEmail("slow@example.com"));
+    }
+
+    @Test
+    void findByEmail_WhenPinnedToPrimary_ShouldQueryDirectly() {
+        coalescer = coalescer(true, 1000, 64, 1, 5000);
+        when(authRepository.findByEmail("fresh@example.com")).thenReturn(Optional.empty());
+        ReplicaRoutingDataSource.openPinScope();
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertTrue(coalescer.findByEmail("fresh@example.com").isEmpty());
+
+        verify(authRepository, never()).findAllByEmailIn(anyCollection());
+    }
+
+    @Test
+    void findByEmail_WhenDisabled_ShouldQueryDirectly() {
+        coalescer = coalescer(false, 1000, 64, 1, 5000);
+        when(authRepository.findByEmail("plain@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(coalescer.findByEmail("plain@example.com").isEmpty());
+
+        verify(authRepository, never()).findAllByEmailIn(anyCollection());
+    }
+
+    private UserLookupCoalescer coalescer(boolean enabled, long windowMicros, int maxBatchSize,
+                                          int threads, long timeoutMs) {
+        return new UserLookupCoalescer(authRepository, shardRouter, transactionManager, meterRegistry,
+                enabled, windowMicros, maxBatchSize, threads, timeoutMs);
+    }
+
+    private static List<User> users(Collection<String> emails) {
+        List<User> users = new ArrayList<>();
+        long id = 1;
+        for (String email : emails) {
+            users.add(User.builder().id(id++).email(email).build());
+        }
+        return users;
+    }
+}
@@ -0,0 +1,110 @@
+package com.georgedroidnegroid.auth_service.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private JfrEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new JfrEndpoint(directory.toString(), 60, 300, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.discard();
+    }
+
+    @Test
+    void download_WhileRunning_ShouldReturnSnapshotWithAuthEventsAndKeepRecording() throws Exception {
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start(30L, "default");
+        assertEquals(WebEndpointResponse.STATUS_OK, started.getStatus());
+        assertEquals("RUNNING", started.getBody().get("state"));
+
+        TokenVerifyEvent tokenVerify = new TokenVerifyEvent();
+        tokenVerify.begin();
+        tokenVerify.valid = true;
+        tokenVerify.commit();
+        UserLookupEvent userLookup = new UserLookupEvent();
+        userLookup.source = "login";
+        userLookup.begin();
+        userLookup.commit();
+
+        WebEndpointResponse<Resource> download = endpoint.download((String) started.getBody().get("name"));
+
+        assertEquals(WebEndpointResponse.STATUS_OK, download.getStatus());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(download.getBody().getFile().toPath());
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("auth.TokenVerify")
+                && event.getBoolean("valid")));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("auth.UserLookup")
+                && "login".equals(event.getString("source"))));
+        assertEquals("RUNNING", endpoint.status().get("state"));
+    }
+
+    @Test
+    void stop_ShouldEndRecordingAndKeepFileForDownload() throws Exception {
+        String name = (String) endpoint.start(30L, null).getBody().get("name");
+
+        WebEndpointResponse<Map<String, Object>> stopped = endpoint.stop(name);
+
+        assertEquals(WebEndpointResponse.STATUS_OK, stopped.getStatus());
+        assertNotEquals("RUNNING", stopped.getBody().get("state"));
+        WebEndpointResponse<Resource> download = endpoint.download(name);
+        assertEquals(WebEndpointResponse.STATUS_OK, download.getStatus());
+        assertFalse(RecordingFile.readAllEvents(download.getBody().getFile().toPath()).isEmpty());
+    }
+
+    @Test
+    void stop_WithUnknownName_ShouldReturnNotFound() {
+        endpoint.start(30L, null);
+
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.stop("unknown").getStatus());
+    }
+
+    @Test
+    void start_WhileRecording_ShouldReturnConflict() {
+        endpoint.start(30L, null);
+
+        assertEquals(409, endpoint.start(30L, null).getStatus());
+    }
+
+    @Test
+    void start_WithUnknownSettings_ShouldReturnBadRequest() {
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.start(30L, "/etc/passwd").getStatus());
+        assertEquals("NONE", endpoint.status().get("state"));
+    }
+
+    @Test
+    void start_ShouldCapDurationAtMaximum() {
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start(86_400L, null);
+
+        assertEquals(300L, started.getBody().get("durationSeconds"));
+    }
+
+    @Test
+    void delete_ShouldDiscardRecording() {
+        String name = (String) endpoint.start(30L, null).getBody().get("name");
+
+        assertEquals(WebEndpointResponse.STATUS_NO_CONTENT, endpoint.delete().getStatus());
+
+        assertEquals("NONE", endpoint.status().get("state"));
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.download(name).getStatus());
+    }
+}
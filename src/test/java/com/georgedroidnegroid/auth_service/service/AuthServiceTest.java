@@ -1,13 +1,20 @@
 package com.georgedroidnegroid.auth_service.service;
 
+import com.georgedroidnegroid.auth_service.audit.AuditLog;
+import com.georgedroidnegroid.auth_service.bloom.RegisteredEmailFilter;
+import com.georgedroidnegroid.auth_service.breach.BreachedPasswordChecker;
 import com.georgedroidnegroid.auth_service.entity.User;
+import com.georgedroidnegroid.auth_service.lifecycle.LastLoginRecorder;
+import com.georgedroidnegroid.auth_service.lookup.UserLookupCoalescer;
 import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import com.georgedroidnegroid.auth_service.utils.exeption.UserNotCreatedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +35,24 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    @Mock
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Mock
+    private BreachedPasswordChecker breachedPasswordChecker;
+
+    @Mock
+    private UserLookupCoalescer userLookupCoalescer;
+
     @InjectMocks
     private AuthService authService;
 
@@ -75,6 +100,60 @@ class AuthServiceTest {
         verify(authRepository, times(1)).save(any(User.class));
     }
 
+    @Test
+    void registerUser_WithExistingEmail_ShouldThrowUserNotCreatedException() {
+        String email = "test@example.com";
+        when(authRepository.existsByEmail(email)).thenReturn(true);
+
+        assertThrows(UserNotCreatedException.class, () -> authService.registerUser(email, "password123"));
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(authRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void registerUser_ShouldCheckExistenceRegardlessOfEmailFilter() {
+        String email = "newuser@example.com";
+        when(passwordEncoder.encode("password123")).thenReturn("$2a$10$encodedPassword");
+
+        authService.registerUser(email, "password123");
+
+        verify(authRepository, times(1)).existsByEmail(email);
+        verify(authRepository, times(1)).save(any(User.class));
+        verifyNoInteractions(registeredEmailFilter);
+    }
+
+    @Test
+    void registerUser_WhenConcurrentRegistrationWins_ShouldThrowUserNotCreatedException() {
+        String email = "newuser@example.com";
+        when(passwordEncoder.encode("password123")).thenReturn("$2a$10$encodedPassword");
+        doThrow(new DataIntegrityViolationException("ux_auth_info_email")).when(authRepository).flush();
+
+        assertThrows(UserNotCreatedException.class, () -> authService.registerUser(email, "password123"));
+    }
+
+    @Test
+    void registerUser_WithBreachedPassword_ShouldThrowBeforeEncoding() {
+        when(breachedPasswordChecker.isBreached("password123")).thenReturn(true);
+
+        assertThrows(UserNotCreatedException.class, () -> authService.registerUser("newuser@example.com", "password123"));
+
+        verify(authRepository, never()).existsByEmail(anyString());
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(authRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void registerUser_WithArchivedEmail_ShouldThrowUserNotCreatedException() {
+        String email = "dormant@example.com";
+        when(authRepository.existsByEmail(email)).thenReturn(false);
+        when(authRepository.existsArchivedByEmail(email)).thenReturn(true);
+
+        assertThrows(UserNotCreatedException.class, () -> authService.registerUser(email, "password123"));
+
+        verify(authRepository, never()).save(any(User.class));
+    }
+
     @Test
     void login_WithValidCredentials_ShouldReturnUser() {
         String email = "test@example.com";
@@ -89,6 +168,24 @@ class AuthServiceTest {
         assertEquals(testUser.getEmail(), result.getEmail());
         verify(authRepository, times(1)).findByEmail(email);
         verify(passwordEncoder, times(1)).matches(password, testUser.getPasswordHash());
+        verify(lastLoginRecorder, times(1)).record(testUser.getId());
+        verify(authRepository, never()).lockArchivedByEmail(anyString());
+    }
+
+    @Test
+    void login_WithArchivedAccount_ShouldRestoreAndReturnUser() {
+        String email = "test@example.com";
+        String password = "password123";
+
+        when(authRepository.findByEmail(email)).thenReturn(Optional.empty(), Optional.of(testUser));
+        when(authRepository.lockArchivedByEmail(email)).thenReturn(Optional.of(testUser.getId()));
+        when(passwordEncoder.matches(password, testUser.getPasswordHash())).thenReturn(true);
+
+        User result = authService.login(email, password);
+
+        assertEquals(testUser.getEmail(), result.getEmail());
+        verify(authRepository, times(1)).restoreArchivedByEmail(email);
+        verify(authRepository, times(1)).deleteArchivedByEmail(email);
     }
 
     @Test
@@ -102,7 +199,21 @@ class AuthServiceTest {
             authService.login(email, password);
         });
 
-        verify(authRepository, times(1)).findByEmail(email);
+        // The second lookup covers an account restored by a concurrent login
+        verify(authRepository, times(2)).findByEmail(email);
+        verify(authRepository, times(1)).lockArchivedByEmail(email);
+        verify(authRepository, never()).restoreArchivedByEmail(anyString());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void login_WithEmailNeverRegistered_ShouldNotQueryRepository() {
+        String email = "nonexistent@example.com";
+        when(registeredEmailFilter.isKnownUnregistered(email)).thenReturn(true);
+
+        assertThrows(UsernameNotFoundException.class, () -> authService.login(email, "password123"));
+
+        verify(authRepository, never()).findByEmail(anyString());
         verify(passwordEncoder, never()).matches(anyString(), anyString());
     }
 
@@ -125,47 +236,47 @@ class AuthServiceTest {
     @Test
     void findByEmail_WithExistingEmail_ShouldReturnUser() {
         String email = "test@example.com";
-        when(authRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
+        when(userLookupCoalescer.findByEmail(email)).thenReturn(Optional.of(testUser));
 
         Optional<User> result = authService.findByEmail(email);
 
         assertTrue(result.isPresent());
         assertEquals(testUser.getEmail(), result.get().getEmail());
-        verify(authRepository, times(1)).findByEmail(email);
+        verify(userLookupCoalescer, times(1)).findByEmail(email);
     }
 
     @Test
     void findByEmail_WithNonExistingEmail_ShouldReturnEmpty() {
         String email = "nonexistent@example.com";
-        when(authRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(userLookupCoalescer.findByEmail(email)).thenReturn(Optional.empty());
 
         Optional<User> result = authService.findByEmail(email);
 
         assertFalse(result.isPresent());
-        verify(authRepository, times(1)).findByEmail(email);
+        verify(userLookupCoalescer, times(1)).findByEmail(email);
     }
 
     @Test
     void findById_WithExistingId_ShouldReturnUser() {
-        Integer id = 1;
-        when(authRepository.findById(id)).thenReturn(Optional.of(testUser));
+        Long id = 1L;
+        when(userLookupCoalescer.findById(id)).thenReturn(Optional.of(testUser));
 
         Optional<User> result = authService.findById(id);
 
         assertTrue(result.isPresent());
         assertEquals(testUser.getId(), result.get().getId());
-        verify(authRepository, times(1)).findById(id);
+        verify(userLookupCoalescer, times(1)).findById(id);
     }
 
     @Test
     void findById_WithNonExistingId_ShouldReturnEmpty() {
-        Integer id = 999;
-        when(authRepository.findById(id)).thenReturn(Optional.empty());
+        Long id = 999L;
+        when(userLookupCoalescer.findById(id)).thenReturn(Optional.empty());
 
         Optional<User> result = authService.findById(id);
 
         assertFalse(result.isPresent());
-        verify(authRepository, times(1)).findById(id);
+        verify(userLookupCoalescer, times(1)).findById(id);
     }
 }
 
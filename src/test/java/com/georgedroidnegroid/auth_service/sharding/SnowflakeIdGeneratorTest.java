@@ -0,0 +1,56 @@
+package com.georgedroidnegroid.auth_service.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextId_ShouldBeUniqueAndIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId(i % SnowflakeIdGenerator.BUCKETS);
+            assertTrue(id > 0);
+            assertTrue(ids.add(id));
+            if (i % SnowflakeIdGenerator.BUCKETS == 0) {
+                assertTrue(id > previous);
+                previous = id;
+            }
+        }
+    }
+
+    @Test
+    void bucketOf_ShouldReturnBucketEncodedInId() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID);
+
+        assertEquals(0, SnowflakeIdGenerator.bucketOf(generator.nextId(0)));
+        assertEquals(117, SnowflakeIdGenerator.bucketOf(generator.nextId(117)));
+        assertEquals(255, SnowflakeIdGenerator.bucketOf(generator.nextId(255)));
+    }
+
+    @Test
+    void constructor_WithWorkerIdOutOfRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+
+    @Test
+    void shardForId_ShouldMatchShardForEmail() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0);
+        ShardRouter router = new ShardRouter(5);
+
+        for (String email : new String[]{"a@example.com", "B@Example.com ", "user42@mail.ru", "x@y.z"}) {
+            long id = generator.nextId(ShardRouter.bucketFor(email));
+            assertEquals(router.shardForEmail(email), router.shardForId(id));
+        }
+        assertEquals(router.shardForEmail("b@example.com"), router.shardForEmail("  B@EXAMPLE.COM"));
+    }
+}
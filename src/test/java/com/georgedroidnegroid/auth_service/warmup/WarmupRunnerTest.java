@@ -0,0 +1,88 @@
+package com.georgedroidnegroid.auth_service.warmup;
+
+import com.georgedroidnegroid.auth_service.bloom.RegisteredEmailFilter;
+import com.georgedroidnegroid.auth_service.config.JwtUtil;
+import com.georgedroidnegroid.auth_service.repository.AuthRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private AuthRepository authRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void run_ShouldExerciseEveryHotPath() {
+        when(jwtUtil.generateToken(anyString(), anyLong())).thenReturn("token");
+        when(authRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+
+        runner(60_000).run(new DefaultApplicationArguments());
+
+        verify(jwtUtil, times(10)).verify("token");
+        verify(authRepository, times(5)).findByEmail(anyString());
+        verify(passwordEncoder, times(2)).matches(anyString(), eq("hash"));
+        assertEquals(5, meterRegistry.find("auth.warmup.duration").timers().size());
+    }
+
+    @Test
+    void run_WhenStepFails_ShouldContinueWithNextSteps() {
+        when(jwtUtil.generateToken(anyString(), anyLong())).thenThrow(new IllegalStateException("no key"));
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+
+        assertDoesNotThrow(() -> runner(60_000).run(new DefaultApplicationArguments()));
+
+        verify(authRepository, times(5)).findByEmail(anyString());
+        verify(passwordEncoder, times(2)).matches(anyString(), eq("hash"));
+    }
+
+    @Test
+    void run_WhenEmailFilterIsNotBuilding_ShouldNotWaitForIt() {
+        when(registeredEmailFilter.isReady()).thenReturn(false);
+        when(registeredEmailFilter.isBuilding()).thenReturn(false);
+
+        long start = System.nanoTime();
+        runner(10_000).run(new DefaultApplicationArguments());
+
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    private WarmupRunner runner(long timeoutMs) {
+        return new WarmupRunner(dataSource, jwtUtil, authRepository, passwordEncoder, registeredEmailFilter,
+                meterRegistry, 10, 5, 2, true, timeoutMs);
+    }
+}